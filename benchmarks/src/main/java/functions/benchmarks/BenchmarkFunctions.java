@@ -0,0 +1,40 @@
+package functions.benchmarks;
+
+import functions.ArrayTabulatedFunction;
+import functions.CompressedTabulatedFunction;
+import functions.LinkedListTabulatedFunction;
+import functions.OffHeapTabulatedFunction;
+import functions.PooledLinkedListTabulatedFunction;
+import functions.TabulatedFunction;
+import functions.UniformTabulatedFunction;
+
+// Создание табулированных функций для бенчмарков: равномерная сетка [0, pointsCount - 1]
+final class BenchmarkFunctions {
+    private BenchmarkFunctions() {
+        throw new AssertionError("Не удается создать экземпляр служебного класса");
+    }
+
+    static TabulatedFunction create(String implementation, int pointsCount) {
+        double[] values = new double[pointsCount];
+        for (int i = 0; i < pointsCount; i++) {
+            values[i] = Math.sin(i * 0.001);
+        }
+        double rightX = pointsCount - 1;
+        switch (implementation) {
+            case "array":
+                return new ArrayTabulatedFunction(0, rightX, values);
+            case "list":
+                return new LinkedListTabulatedFunction(0, rightX, values);
+            case "pooled":
+                return new PooledLinkedListTabulatedFunction(0, rightX, values);
+            case "uniform":
+                return new UniformTabulatedFunction(0, rightX, values);
+            case "offheap":
+                return new OffHeapTabulatedFunction(0, rightX, values);
+            case "compressed":
+                return new CompressedTabulatedFunction(0, rightX, values);
+            default:
+                throw new IllegalArgumentException("Неизвестная реализация: " + implementation);
+        }
+    }
+}
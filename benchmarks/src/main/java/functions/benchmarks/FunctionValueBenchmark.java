@@ -0,0 +1,62 @@
+package functions.benchmarks;
+
+import functions.TabulatedFunction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Вычисление значения табулированной функции в случайных точках области определения
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FunctionValueBenchmark {
+    // Количество заранее сгенерированных аргументов (степень двойки для маски)
+    private static final int ARGUMENTS_COUNT = 1 << 10;
+
+    @Param({"100", "10000", "1000000"})
+    public int pointsCount;
+
+    @Param({"array", "list", "uniform", "offheap", "compressed"})
+    public String implementation;
+
+    private TabulatedFunction function;
+    private double[] arguments;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        function = BenchmarkFunctions.create(implementation, pointsCount);
+
+        SplittableRandom random = new SplittableRandom(42);
+        double left = function.getLeftDomainBorder();
+        double right = function.getRightDomainBorder();
+        arguments = new double[ARGUMENTS_COUNT];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = left + random.nextDouble() * (right - left);
+        }
+    }
+
+    @Benchmark
+    public double getFunctionValue() {
+        double x = arguments[next];
+        next = (next + 1) & (ARGUMENTS_COUNT - 1);
+        return function.getFunctionValue(x);
+    }
+
+    // Упорядоченный проход по сетке: последовательный доступ к точкам
+    @Benchmark
+    @OperationsPerInvocation(ARGUMENTS_COUNT)
+    public double getFunctionValueSweep() {
+        double left = function.getLeftDomainBorder();
+        double step = (function.getRightDomainBorder() - left) / (ARGUMENTS_COUNT - 1);
+        double sum = 0;
+        for (int i = 0; i < ARGUMENTS_COUNT; i++) {
+            sum += function.getFunctionValue(left + i * step);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,65 @@
+package functions.benchmarks;
+
+import functions.TabulatedFunction;
+import functions.TabulatedFunctions;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Запись и чтение табулированной функции в двоичном и текстовом форматах через
+// потоки в памяти, чтобы измерялось кодирование, а не диск
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IOBenchmark {
+    @Param({"100", "10000", "1000000"})
+    public int pointsCount;
+
+    private TabulatedFunction function;
+    private byte[] binary;
+    private String text;
+    private ByteArrayOutputStream bytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        function = BenchmarkFunctions.create("array", pointsCount);
+        bytes = new ByteArrayOutputStream(pointsCount * 2 * Double.BYTES + Integer.BYTES);
+
+        TabulatedFunctions.outputTabulatedFunction(function, bytes);
+        binary = bytes.toByteArray();
+
+        StringWriter writer = new StringWriter();
+        TabulatedFunctions.writeTabulatedFunction(function, writer);
+        text = writer.toString();
+    }
+
+    @Benchmark
+    public int outputBinary() throws IOException {
+        bytes.reset();
+        TabulatedFunctions.outputTabulatedFunction(function, bytes);
+        return bytes.size();
+    }
+
+    @Benchmark
+    public TabulatedFunction inputBinary() throws IOException {
+        return TabulatedFunctions.inputTabulatedFunction(new ByteArrayInputStream(binary));
+    }
+
+    @Benchmark
+    public int writeText() throws IOException {
+        bytes.reset();
+        Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8);
+        TabulatedFunctions.writeTabulatedFunction(function, writer);
+        return bytes.size();
+    }
+
+    @Benchmark
+    public TabulatedFunction readText() throws IOException {
+        return TabulatedFunctions.readTabulatedFunction(new StringReader(text));
+    }
+}
@@ -0,0 +1,53 @@
+package functions.benchmarks;
+
+import functions.FunctionPoint;
+import functions.InappropriateFunctionPointException;
+import functions.TabulatedFunction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Добавление точки в середину случайного интервала и её удаление; количество точек
+// между вызовами не меняется
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModificationBenchmark {
+    private static final int INTERVALS_COUNT = 1 << 10;
+
+    @Param({"100", "10000", "1000000"})
+    public int pointsCount;
+
+    @Param({"array", "list", "pooled"})
+    public String implementation;
+
+    private TabulatedFunction function;
+    private int[] intervals;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        function = BenchmarkFunctions.create(implementation, pointsCount);
+
+        SplittableRandom random = new SplittableRandom(42);
+        intervals = new int[INTERVALS_COUNT];
+        for (int i = 0; i < intervals.length; i++) {
+            intervals[i] = random.nextInt(pointsCount - 1);
+        }
+    }
+
+    @Benchmark
+    public int addAndDeletePoint() throws InappropriateFunctionPointException {
+        int i = intervals[next];
+        next = (next + 1) & (INTERVALS_COUNT - 1);
+
+        // На сетке [0, pointsCount - 1] с шагом 1 середина интервала i равна i + 0.5
+        function.addPoint(new FunctionPoint(i + 0.5, 0));
+        function.deletePoint(i + 1);
+        return function.getPointsCount();
+    }
+}
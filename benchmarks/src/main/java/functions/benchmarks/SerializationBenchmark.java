@@ -0,0 +1,43 @@
+package functions.benchmarks;
+
+import functions.TabulatedFunction;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+// Полный цикл сериализации: ArrayTabulatedFunction использует Serializable,
+// LinkedListTabulatedFunction - Externalizable
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+    @Param({"100", "10000", "1000000"})
+    public int pointsCount;
+
+    @Param({"array", "list", "pooled"})
+    public String implementation;
+
+    private TabulatedFunction function;
+    private ByteArrayOutputStream bytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        function = BenchmarkFunctions.create(implementation, pointsCount);
+        bytes = new ByteArrayOutputStream(pointsCount * 2 * Double.BYTES + 1024);
+    }
+
+    @Benchmark
+    public Object roundTrip() throws IOException, ClassNotFoundException {
+        bytes.reset();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(function);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return in.readObject();
+        }
+    }
+}
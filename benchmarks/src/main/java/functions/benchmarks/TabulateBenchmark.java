@@ -0,0 +1,40 @@
+package functions.benchmarks;
+
+import functions.Function;
+import functions.TabulatedFunction;
+import functions.TabulatedFunctions;
+import functions.basic.Exp;
+import functions.basic.Sin;
+import functions.meta.Sum;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Табулирование аналитической функции: последовательно и с разбиением по потокам
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TabulateBenchmark {
+    @Param({"100", "10000", "1000000"})
+    public int pointsCount;
+
+    private Function function;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        function = new Sum(new Sin(), new Exp());
+    }
+
+    @Benchmark
+    public TabulatedFunction tabulate() {
+        return TabulatedFunctions.tabulate(function, 0, 10, pointsCount);
+    }
+
+    @Benchmark
+    public TabulatedFunction tabulateParallel() {
+        return TabulatedFunctions.tabulate(function, 0, 10, pointsCount, 0);
+    }
+}
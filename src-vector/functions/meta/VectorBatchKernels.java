@@ -0,0 +1,76 @@
+package functions.meta;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Операции BatchKernels на jdk.incubator.vector: по SPECIES.length() значений за команду
+// (4 при AVX2, 8 при AVX-512), хвост порции - скалярно. Собирается отдельным исполнением
+// компилятора с --add-modules jdk.incubator.vector и загружается BatchKernels через отражение
+// только при подключённом модуле, поэтому без модуля класс не нужен и не загружается
+final class VectorBatchKernels implements BatchKernels.Kernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void add(double[] result, double[] term, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, result, i)
+                    .add(DoubleVector.fromArray(SPECIES, term, i))
+                    .intoArray(result, i);
+        }
+        for (; i < length; i++) {
+            result[i] += term[i];
+        }
+    }
+
+    @Override
+    public void multiply(double[] result, double[] term, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, result, i)
+                    .mul(DoubleVector.fromArray(SPECIES, term, i))
+                    .intoArray(result, i);
+        }
+        for (; i < length; i++) {
+            result[i] *= term[i];
+        }
+    }
+
+    @Override
+    public void copyInDomain(double[] xValues, int xOffset, double[] result, double[] values, int offset,
+                             int length, double left, double right) {
+        // Сравнения с NaN ложны, поэтому аргумент NaN, как и в скалярной версии, не считается
+        // лежащим вне области и получает вычисленное значение
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, xValues, xOffset + i);
+            VectorMask<Double> outside = x.compare(VectorOperators.LT, left)
+                    .or(x.compare(VectorOperators.GT, right));
+            DoubleVector.fromArray(SPECIES, result, i)
+                    .blend(Double.NaN, outside)
+                    .intoArray(values, offset + i);
+        }
+        for (; i < length; i++) {
+            double x = xValues[xOffset + i];
+            values[offset + i] = x < left || x > right ? Double.NaN : result[i];
+        }
+    }
+
+    @Override
+    public void propagateNaN(double[] innerValues, double[] values, int offset, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            VectorMask<Double> nan = DoubleVector.fromArray(SPECIES, innerValues, i).test(VectorOperators.IS_NAN);
+            DoubleVector.fromArray(SPECIES, values, offset + i)
+                    .blend(Double.NaN, nan)
+                    .intoArray(values, offset + i);
+        }
+        for (; i < length; i++) {
+            if (Double.isNaN(innerValues[i])) {
+                values[offset + i] = Double.NaN;
+            }
+        }
+    }
+}
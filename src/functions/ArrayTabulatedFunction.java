@@ -1,12 +1,27 @@
 package functions;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Arrays;
 
 public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
+    private static final long serialVersionUID = 1L;
     private static final double EPSILON = 1e-10;
-    private FunctionPoint[] points;
-    private int pointsCount;
+    // Координаты хранятся в двух параллельных массивах примитивов:
+    // без объекта FunctionPoint на каждую точку и с последовательным доступом к памяти.
+    // Поля сериализуются вручную в формате PackedPoints (без запаса места в массивах)
+    private transient double[] xValues;
+    private transient double[] yValues;
+    private transient int pointsCount;
+    // Шаг равномерной сетки; 0, если сетка неравномерная
+    private transient double gridStep;
+    // Режим записывается во флагах PackedPoints вместе с точками
+    private transient InterpolationMode interpolationMode = InterpolationMode.LINEAR;
+    // Наклоны в точках для кубической интерполяции; null при линейной интерполяции
+    private transient double[] slopes;
 
     // Конструкторы
     public ArrayTabulatedFunction(FunctionPoint[] points) {
@@ -19,9 +34,14 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
                 throw new IllegalArgumentException("Точки должны быть упорядочены по X");
             }
         }
-        // Создание копии массива для инкапсуляции
-        this.points = Arrays.copyOf(points, points.length);
+        // Копирование координат для инкапсуляции
         this.pointsCount = points.length;
+        this.xValues = new double[pointsCount];
+        this.yValues = new double[pointsCount];
+        for (int i = 0; i < pointsCount; i++) {
+            xValues[i] = points[i].getX();
+            yValues[i] = points[i].getY();
+        }
     }
 
     public ArrayTabulatedFunction(double leftX, double rightX, int pointsCount) {
@@ -33,13 +53,14 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         }
 
         this.pointsCount = pointsCount;
-        this.points = new FunctionPoint[pointsCount + 2]; // Запас места
+        this.xValues = new double[pointsCount + 2]; // Запас места
+        this.yValues = new double[pointsCount + 2];
 
         double step = (rightX - leftX) / (pointsCount - 1);
         for (int i = 0; i < pointsCount; i++) {
-            double x = leftX + i * step;
-            points[i] = new FunctionPoint(x, 0);
+            xValues[i] = leftX + i * step;
         }
+        this.gridStep = step;
     }
 
     public ArrayTabulatedFunction(double leftX, double rightX, double[] values) {
@@ -51,22 +72,68 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         }
 
         this.pointsCount = values.length;
-        this.points = new FunctionPoint[pointsCount + 2];
+        this.xValues = new double[pointsCount + 2];
+        this.yValues = new double[pointsCount + 2];
 
         double step = (rightX - leftX) / (pointsCount - 1);
         for (int i = 0; i < pointsCount; i++) {
-            double x = leftX + i * step;
-            points[i] = new FunctionPoint(x, values[i]);
+            xValues[i] = leftX + i * step;
+        }
+        System.arraycopy(values, 0, yValues, 0, pointsCount);
+        this.gridStep = step;
+    }
+
+    // Конструктор без копирования: массивы уже заполнены вызывающим кодом пакета
+    ArrayTabulatedFunction(double[] xValues, double[] yValues, int pointsCount, double gridStep) {
+        this.xValues = xValues;
+        this.yValues = yValues;
+        this.pointsCount = pointsCount;
+        this.gridStep = gridStep;
+    }
+
+    // Сериализация
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        writePoints(out);
+    }
+
+    // Точки в формате PackedPoints; используется и функциями пакета, хранящими копию внутри себя
+    void writePoints(ObjectOutputStream out) throws IOException {
+        PackedPoints.write(out, xValues, yValues, pointsCount, gridStep, interpolationMode);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        PackedPoints points = PackedPoints.read(in);
+        if (points.pointsCount < 2) {
+            throw new InvalidObjectException("Требуется не менее 2 точек, получено " + points.pointsCount);
+        }
+        this.xValues = points.xValues;
+        this.yValues = points.yValues;
+        this.pointsCount = points.pointsCount;
+        this.gridStep = points.gridStep;
+        this.interpolationMode = points.interpolationMode;
+        computeSlopes();
+    }
+
+    // Независимая копия с тем же запасом места под добавление точек
+    ArrayTabulatedFunction copy() {
+        ArrayTabulatedFunction copy = new ArrayTabulatedFunction(Arrays.copyOf(xValues, pointsCount + 2),
+                Arrays.copyOf(yValues, pointsCount + 2), pointsCount, gridStep);
+        copy.interpolationMode = interpolationMode;
+        if (slopes != null) {
+            copy.slopes = Arrays.copyOf(slopes, pointsCount + 2);
         }
+        return copy;
     }
 
     // Методы для работы с функцией
     public double getLeftDomainBorder() {
-        return points[0].getX();
+        return xValues[0];
     }
 
     public double getRightDomainBorder() {
-        return points[pointsCount - 1].getX();
+        return xValues[pointsCount - 1];
     }
 
     public double getFunctionValue(double x) {
@@ -75,28 +142,200 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         }
 
         // Поиск интервала, в который попадает x
+        return interpolate(findInterval(x), x);
+    }
+
+    @Override
+    public void getFunctionValues(double[] arguments, int argumentsOffset, double[] values, int offset, int length) {
+        if (!TabulatedFunctions.isSorted(arguments, argumentsOffset, length)) {
+            TabulatedFunction.super.getFunctionValues(arguments, argumentsOffset, values, offset, length);
+            return;
+        }
+
+        // Отсортированные аргументы: один проход слиянием по сетке
+        double left = getLeftDomainBorder() - EPSILON;
+        double right = getRightDomainBorder() + EPSILON;
+        int last = pointsCount - 2;
         int i = 0;
-        while (i < pointsCount - 1 && points[i + 1].getX() < x - EPSILON) {
-            i++;
+        for (int k = 0; k < length; k++) {
+            double x = arguments[argumentsOffset + k];
+            if (x < left || x > right) {
+                values[offset + k] = Double.NaN;
+                continue;
+            }
+            while (i < last && xValues[i + 1] < x - EPSILON) {
+                i++;
+            }
+            values[offset + k] = interpolate(i, x);
         }
+    }
+
+    // Курсор хранит только номер интервала; массивы читаются из функции при каждом запросе,
+    // поэтому курсор остаётся верным и после изменения точек
+    @Override
+    public TabulatedCursor cursor() {
+        return new TabulatedCursor() {
+            private int interval;
+
+            @Override
+            public double getFunctionValue(double x) {
+                if (x < getLeftDomainBorder() - EPSILON || x > getRightDomainBorder() + EPSILON) {
+                    return Double.NaN;
+                }
+                if (Double.isNaN(x)) {
+                    return ArrayTabulatedFunction.this.getFunctionValue(x);
+                }
+                interval = findInterval(interval, x);
+                return interpolate(interval, x);
+            }
+        };
+    }
 
+    // Тот же интервал, что и findInterval(x), но поиск идёт от интервала hint шагами 1, 2, 4, ...
+    // и завершается двоичным поиском: O(log d) для интервала на расстоянии d от hint
+    private int findInterval(int hint, double x) {
+        int last = pointsCount - 2;
+        double bound = x - EPSILON;
+        int i = Math.min(hint, last);
+        int low;
+        int high;
+        if (i < last && xValues[i + 1] < bound) {
+            // Интервал правее подсказки
+            low = i + 1;
+            high = last;
+            for (int step = 1; i + step < last; step <<= 1) {
+                if (xValues[i + step + 1] >= bound) {
+                    high = i + step;
+                    break;
+                }
+                low = i + step + 1;
+            }
+        } else if (i > 0 && xValues[i] >= bound) {
+            // Интервал левее подсказки
+            low = 0;
+            high = i - 1;
+            for (int step = 1; i - step > 0; step <<= 1) {
+                if (xValues[i - step] < bound) {
+                    low = i - step;
+                    break;
+                }
+                high = i - step - 1;
+            }
+        } else {
+            return i;
+        }
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xValues[mid + 1] < bound) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Значение на интервале [xValues[i], xValues[i + 1]]
+    private double interpolate(int i, double x) {
         // Если x совпадает с одной из точек (в пределах epsilon)
-        if (Math.abs(points[i].getX() - x) < EPSILON) {
-            return points[i].getY();
+        if (Math.abs(xValues[i] - x) < EPSILON) {
+            return yValues[i];
         }
-        if (i < pointsCount - 1 && Math.abs(points[i + 1].getX() - x) < EPSILON) {
-            return points[i + 1].getY();
+        if (i < pointsCount - 1 && Math.abs(xValues[i + 1] - x) < EPSILON) {
+            return yValues[i + 1];
         }
 
-        // Линейная интерполяция
-        double x1 = points[i].getX();
-        double y1 = points[i].getY();
-        double x2 = points[i + 1].getX();
-        double y2 = points[i + 1].getY();
+        double x1 = xValues[i];
+        double y1 = yValues[i];
+        double x2 = xValues[i + 1];
+        double y2 = yValues[i + 1];
+        if (interpolationMode != InterpolationMode.LINEAR) {
+            double[] d = slopes;
+            return Interpolation.hermite(x1, y1, d[i], x2, y2, d[i + 1], x);
+        }
 
+        // Линейная интерполяция
         return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
     }
 
+    // Способ интерполяции
+    public InterpolationMode getInterpolationMode() {
+        return interpolationMode;
+    }
+
+    public void setInterpolationMode(InterpolationMode interpolationMode) {
+        if (interpolationMode == null) {
+            throw new IllegalArgumentException("Способ интерполяции не задан");
+        }
+        this.interpolationMode = interpolationMode;
+        computeSlopes();
+    }
+
+    // Наклоны вычисляются сразу при изменении способа интерполяции или точек,
+    // поэтому вычисление значений ничего не записывает в функцию
+    private void computeSlopes() {
+        if (interpolationMode == InterpolationMode.LINEAR) {
+            slopes = null;
+            return;
+        }
+        double[] d = new double[xValues.length];
+        if (interpolationMode == InterpolationMode.CUBIC_SPLINE) {
+            Interpolation.splineSlopes(xValues, yValues, pointsCount, d);
+        } else {
+            for (int i = 0; i < pointsCount; i++) {
+                d[i] = Interpolation.pchipSlope(xValues, yValues, pointsCount, i);
+            }
+        }
+        slopes = d;
+    }
+
+    // Учёт изменения точек около index: наклон PCHIP зависит от двух соседей с каждой
+    // стороны (на концах - от трёх точек), поэтому пересчитываются только они;
+    // наклоны сплайна зависят от всех точек и вычисляются заново
+    private void updateSlopes(int index) {
+        if (interpolationMode != InterpolationMode.PCHIP) {
+            computeSlopes();
+            return;
+        }
+        for (int i = Math.max(0, index - 2); i <= Math.min(pointsCount - 1, index + 2); i++) {
+            slopes[i] = Interpolation.pchipSlope(xValues, yValues, pointsCount, i);
+        }
+        slopes[0] = Interpolation.pchipSlope(xValues, yValues, pointsCount, 0);
+        slopes[pointsCount - 1] = Interpolation.pchipSlope(xValues, yValues, pointsCount, pointsCount - 1);
+    }
+
+    // Индекс i левой границы интервала: наименьший i, для которого xValues[i + 1] >= x - EPSILON
+    private int findInterval(double x) {
+        int last = pointsCount - 2;
+        if (gridStep > 0) {
+            // Равномерная сетка: индекс вычисляется арифметически и уточняется соседями
+            int i = (int) ((x - xValues[0]) / gridStep);
+            if (i < 0) i = 0;
+            if (i > last) i = last;
+            while (i > 0 && xValues[i] >= x - EPSILON) {
+                i--;
+            }
+            while (i < last && xValues[i + 1] < x - EPSILON) {
+                i++;
+            }
+            return i;
+        }
+
+        // Двоичный поиск
+        int low = 0;
+        int high = last;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xValues[mid + 1] < x - EPSILON) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
     // Методы для работы с точками
     public int getPointsCount() {
         return pointsCount;
@@ -106,75 +345,109 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " вне границ [0, " + (pointsCount-1) + "]");
         }
-        return new FunctionPoint(points[index]);
+        // Объект точки создаётся только по запросу
+        return new FunctionPoint(xValues[index], yValues[index]);
     }
 
-    public void setPoint(int index, FunctionPoint point) throws 
+    public void setPoint(int index, FunctionPoint point) throws
             FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
-        
+
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " вне границ [0, " + (pointsCount-1) + "]");
         }
 
         // Проверка корректности новой x-координаты
-        if (index > 0 && point.getX() <= points[index - 1].getX() + EPSILON) {
+        if (index > 0 && point.getX() <= xValues[index - 1] + EPSILON) {
             throw new InappropriateFunctionPointException(
-                "X-координата точки (" + point.getX() + ") должна быть больше предыдущей (" + points[index-1].getX() + ")");
+                "X-координата точки (" + point.getX() + ") должна быть больше предыдущей (" + xValues[index-1] + ")");
         }
-        if (index < pointsCount - 1 && point.getX() >= points[index + 1].getX() - EPSILON) {
+        if (index < pointsCount - 1 && point.getX() >= xValues[index + 1] - EPSILON) {
             throw new InappropriateFunctionPointException(
-                "X-координата точки (" + point.getX() + ") должна быть меньше следующей (" + points[index+1].getX() + ")");
+                "X-координата точки (" + point.getX() + ") должна быть меньше следующей (" + xValues[index+1] + ")");
         }
 
-        points[index].setX(point.getX());
-        points[index].setY(point.getY());
+        if (xValues[index] != point.getX()) {
+            gridStep = 0;
+        }
+        xValues[index] = point.getX();
+        yValues[index] = point.getY();
+        updateSlopes(index);
     }
 
     public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " вне границ [0, " + (pointsCount-1) + "]");
         }
-        return points[index].getX();
+        return xValues[index];
     }
 
-    public void setPointX(int index, double x) throws 
+    public void setPointX(int index, double x) throws
             FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
-        
+
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " вне границ [0, " + (pointsCount-1) + "]");
         }
 
         // Проверка корректности новой x-координаты
-        if (index > 0 && x <= points[index - 1].getX() + EPSILON) {
+        if (index > 0 && x <= xValues[index - 1] + EPSILON) {
             throw new InappropriateFunctionPointException(
-                "X-координата (" + x + ") должна быть больше предыдущей (" + points[index-1].getX() + ")");
+                "X-координата (" + x + ") должна быть больше предыдущей (" + xValues[index-1] + ")");
         }
-        if (index < pointsCount - 1 && x >= points[index + 1].getX() - EPSILON) {
+        if (index < pointsCount - 1 && x >= xValues[index + 1] - EPSILON) {
             throw new InappropriateFunctionPointException(
-                "X-координата (" + x + ") должна быть меньше следующей (" + points[index+1].getX() + ")");
+                "X-координата (" + x + ") должна быть меньше следующей (" + xValues[index+1] + ")");
         }
 
-        points[index].setX(x);
+        if (xValues[index] != x) {
+            gridStep = 0;
+        }
+        xValues[index] = x;
+        updateSlopes(index);
     }
 
     public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " вне границ [0, " + (pointsCount-1) + "]");
         }
-        return points[index].getY();
+        return yValues[index];
+    }
+
+    // Обход и копирование точек без проверки индекса на каждой точке
+    @Override
+    public void forEachPoint(DoubleBiConsumer action) {
+        for (int i = 0; i < pointsCount; i++) {
+            action.accept(xValues[i], yValues[i]);
+        }
+    }
+
+    @Override
+    public void copyXs(double[] destination) {
+        if (destination.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        System.arraycopy(xValues, 0, destination, 0, pointsCount);
+    }
+
+    @Override
+    public void copyYs(double[] destination) {
+        if (destination.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        System.arraycopy(yValues, 0, destination, 0, pointsCount);
     }
 
     public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " вне границ [0, " + (pointsCount-1) + "]");
         }
-        points[index].setY(y);
+        yValues[index] = y;
+        updateSlopes(index);
     }
 
     // Методы для изменения количества точек
-    public void deletePoint(int index) throws 
+    public void deletePoint(int index) throws
             FunctionPointIndexOutOfBoundsException, IllegalStateException {
-        
+
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " вне границ [0, " + (pointsCount-1) + "]");
         }
@@ -182,25 +455,31 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
             throw new IllegalStateException("Нельзя удалить точку: функция должна содержать минимум 2 точки");
         }
 
+        // Удаление крайней точки сохраняет равномерность сетки
+        if (index != 0 && index != pointsCount - 1) {
+            gridStep = 0;
+        }
+
         // Сдвигаем точки влево
-        for (int i = index; i < pointsCount - 1; i++) {
-            points[i] = points[i + 1];
+        System.arraycopy(xValues, index + 1, xValues, index, pointsCount - index - 1);
+        System.arraycopy(yValues, index + 1, yValues, index, pointsCount - index - 1);
+        if (slopes != null) {
+            System.arraycopy(slopes, index + 1, slopes, index, pointsCount - index - 1);
         }
-        points[pointsCount - 1] = null;
         pointsCount--;
+        updateSlopes(Math.min(index, pointsCount - 1));
     }
 
     public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
         // Если массив заполнен, увеличиваем его
-        if (pointsCount >= points.length) {
-            FunctionPoint[] newPoints = new FunctionPoint[points.length * 2];
-            System.arraycopy(points, 0, newPoints, 0, pointsCount);
-            points = newPoints;
+        if (pointsCount >= xValues.length) {
+            xValues = Arrays.copyOf(xValues, xValues.length * 2);
+            yValues = Arrays.copyOf(yValues, yValues.length * 2);
         }
 
         // Проверяем, нет ли уже точки с такой x-координатой
         for (int i = 0; i < pointsCount; i++) {
-            if (Math.abs(points[i].getX() - point.getX()) < EPSILON) {
+            if (Math.abs(xValues[i] - point.getX()) < EPSILON) {
                 throw new InappropriateFunctionPointException(
                     "Точка с x=" + point.getX() + " уже существует");
             }
@@ -208,17 +487,115 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
 
         // Находим позицию для вставки
         int insertIndex = 0;
-        while (insertIndex < pointsCount && points[insertIndex].getX() < point.getX() - EPSILON) {
+        while (insertIndex < pointsCount && xValues[insertIndex] < point.getX() - EPSILON) {
             insertIndex++;
         }
 
         // Сдвигаем точки вправо
-        for (int i = pointsCount; i > insertIndex; i--) {
-            points[i] = points[i - 1];
-        }
+        System.arraycopy(xValues, insertIndex, xValues, insertIndex + 1, pointsCount - insertIndex);
+        System.arraycopy(yValues, insertIndex, yValues, insertIndex + 1, pointsCount - insertIndex);
 
         // Вставляем новую точку
-        points[insertIndex] = new FunctionPoint(point);
+        gridStep = 0;
+        xValues[insertIndex] = point.getX();
+        yValues[insertIndex] = point.getY();
+        if (slopes != null) {
+            if (slopes.length < xValues.length) {
+                slopes = Arrays.copyOf(slopes, xValues.length);
+            }
+            System.arraycopy(slopes, insertIndex, slopes, insertIndex + 1, pointsCount - insertIndex);
+        }
         pointsCount++;
+        updateSlopes(insertIndex);
+    }
+
+    // Пакетное добавление: проверка совпадений одним проходом, затем слияние с конца массива
+    // на месте, без сдвига точек по одной
+    @Override
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        BulkPoints added = BulkPoints.sorted(xs, ys);
+        added.checkMerge(xValues, pointsCount);
+        if (added.count == 0) {
+            return;
+        }
+
+        int total = pointsCount + added.count;
+        if (total > xValues.length) {
+            int capacity = Math.max(total, xValues.length * 2);
+            xValues = Arrays.copyOf(xValues, capacity);
+            yValues = Arrays.copyOf(yValues, capacity);
+        }
+        int i = pointsCount - 1;
+        int j = added.count - 1;
+        for (int k = total - 1; j >= 0; k--) {
+            if (i >= 0 && xValues[i] > added.xValues[j]) {
+                xValues[k] = xValues[i];
+                yValues[k] = yValues[i--];
+            } else {
+                xValues[k] = added.xValues[j];
+                yValues[k] = added.yValues[j--];
+            }
+        }
+        pointsCount = total;
+        gridStep = 0;
+        computeSlopes();
+    }
+
+    @Override
+    public void deleteRange(int from, int to) throws
+            FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        BulkPoints.checkRange(from, to, pointsCount);
+        if (from == to) {
+            return;
+        }
+
+        // Удаление с края сохраняет равномерность сетки
+        if (from != 0 && to != pointsCount) {
+            gridStep = 0;
+        }
+        System.arraycopy(xValues, to, xValues, from, pointsCount - to);
+        System.arraycopy(yValues, to, yValues, from, pointsCount - to);
+        pointsCount -= to - from;
+        computeSlopes();
+    }
+
+    // Удаляемые точки отмечаются в битовой маске, затем оставшиеся сдвигаются за один проход
+    @Override
+    public boolean removeIf(DoubleBiPredicate filter) throws IllegalStateException {
+        long[] removed = new long[(pointsCount + 63) >>> 6];
+        int removedCount = 0;
+        int firstKept = -1;
+        int lastKept = -1;
+        for (int i = 0; i < pointsCount; i++) {
+            if (filter.test(xValues[i], yValues[i])) {
+                removed[i >>> 6] |= 1L << i;
+                removedCount++;
+            } else {
+                if (firstKept < 0) {
+                    firstKept = i;
+                }
+                lastKept = i;
+            }
+        }
+        BulkPoints.checkRemaining(pointsCount - removedCount, removedCount);
+        if (removedCount == 0) {
+            return false;
+        }
+
+        int kept = 0;
+        for (int i = 0; i < pointsCount; i++) {
+            if ((removed[i >>> 6] & 1L << i) == 0) {
+                xValues[kept] = xValues[i];
+                yValues[kept] = yValues[i];
+                kept++;
+            }
+        }
+        // Сетка остаётся равномерной, если оставшиеся точки шли подряд
+        if (lastKept - firstKept + 1 != kept) {
+            gridStep = 0;
+        }
+        pointsCount = kept;
+        computeSlopes();
+        return true;
     }
 }
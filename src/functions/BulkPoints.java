@@ -0,0 +1,150 @@
+package functions;
+
+import java.util.Arrays;
+
+// Новые точки пакетного добавления, упорядоченные по x, и общие проверки пакетных операций.
+// Проверки выполняются до изменения функции, поэтому при исключении функция не меняется.
+// Также служит согласованной копией точек другой функции
+final class BulkPoints {
+    private static final double EPSILON = 1e-10;
+
+    final double[] xValues;
+    final double[] yValues;
+    final int count;
+
+    private BulkPoints(double[] xValues, double[] yValues) {
+        this.xValues = xValues;
+        this.yValues = yValues;
+        this.count = xValues.length;
+    }
+
+    // Копии массивов, упорядоченные по x; исходные массивы не изменяются
+    static BulkPoints sorted(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Массивы координат разной длины");
+        }
+        double[] xValues = xs.clone();
+        double[] yValues = ys.clone();
+        boolean ordered = true;
+        for (int i = 0; i < xValues.length; i++) {
+            if (Double.isNaN(xValues[i])) {
+                throw new InappropriateFunctionPointException("X-координата точки не может быть NaN");
+            }
+            if (i > 0 && xValues[i] < xValues[i - 1]) {
+                ordered = false;
+            }
+        }
+        if (!ordered) {
+            sort(xValues, yValues);
+        }
+        // Совпадения среди новых точек: после упорядочивания достаточно сравнить соседей
+        for (int i = 1; i < xValues.length; i++) {
+            if (xValues[i] - xValues[i - 1] < EPSILON) {
+                throw new InappropriateFunctionPointException("Точка с x=" + xValues[i] + " уже существует");
+            }
+        }
+        return new BulkPoints(xValues, yValues);
+    }
+
+    // Точки функции, прочитанные одним обходом forEachPoint. Отдельные вызовы getPointsCount,
+    // copyXs и copyYs у ConcurrentTabulatedFunction могут попасть на разные снимки, обход - нет
+    static BulkPoints of(TabulatedFunction function) {
+        int capacity = Math.max(2, function.getPointsCount());
+        double[][] arrays = { new double[capacity], new double[capacity] };
+        int[] count = new int[1];
+        function.forEachPoint((x, y) -> {
+            int i = count[0]++;
+            if (i == arrays[0].length) {
+                arrays[0] = Arrays.copyOf(arrays[0], i * 2);
+                arrays[1] = Arrays.copyOf(arrays[1], i * 2);
+            }
+            arrays[0][i] = x;
+            arrays[1][i] = y;
+        });
+        if (count[0] != arrays[0].length) {
+            arrays[0] = Arrays.copyOf(arrays[0], count[0]);
+            arrays[1] = Arrays.copyOf(arrays[1], count[0]);
+        }
+        return new BulkPoints(arrays[0], arrays[1]);
+    }
+
+    // Восходящая сортировка слиянием пар (x, y) по x
+    private static void sort(double[] xValues, double[] yValues) {
+        int length = xValues.length;
+        double[] sourceX = xValues;
+        double[] sourceY = yValues;
+        double[] targetX = new double[length];
+        double[] targetY = new double[length];
+        for (int width = 1; width < length; width *= 2) {
+            for (int from = 0; from < length; from += 2 * width) {
+                int middle = Math.min(from + width, length);
+                int to = Math.min(from + 2 * width, length);
+                int i = from;
+                int j = middle;
+                for (int k = from; k < to; k++) {
+                    if (j >= to || i < middle && sourceX[i] <= sourceX[j]) {
+                        targetX[k] = sourceX[i];
+                        targetY[k] = sourceY[i++];
+                    } else {
+                        targetX[k] = sourceX[j];
+                        targetY[k] = sourceY[j++];
+                    }
+                }
+            }
+            double[] swap = sourceX;
+            sourceX = targetX;
+            targetX = swap;
+            swap = sourceY;
+            sourceY = targetY;
+            targetY = swap;
+        }
+        if (sourceX != xValues) {
+            System.arraycopy(sourceX, 0, xValues, 0, length);
+            System.arraycopy(sourceY, 0, yValues, 0, length);
+        }
+    }
+
+    // Проверка совпадений новых точек с существующими: ближайшие к новой точке -
+    // соседние по порядку существующие точки, поэтому хватает одного прохода по обоим массивам
+    void checkMerge(double[] existingX, int existingCount) throws InappropriateFunctionPointException {
+        int i = 0;
+        for (int j = 0; j < count; j++) {
+            double x = xValues[j];
+            while (i < existingCount && existingX[i] < x) {
+                i++;
+            }
+            if (i > 0 && x - existingX[i - 1] < EPSILON || i < existingCount && existingX[i] - x < EPSILON) {
+                throw new InappropriateFunctionPointException("Точка с x=" + x + " уже существует");
+            }
+        }
+    }
+
+    // Слияние упорядоченных существующих точек с новыми в массивы длиной не меньше existingCount + count
+    void merge(double[] existingX, double[] existingY, int existingCount, double[] resultX, double[] resultY) {
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < existingCount + count; k++) {
+            if (j >= count || i < existingCount && existingX[i] < xValues[j]) {
+                resultX[k] = existingX[i];
+                resultY[k] = existingY[i++];
+            } else {
+                resultX[k] = xValues[j];
+                resultY[k] = yValues[j++];
+            }
+        }
+    }
+
+    static void checkRange(int from, int to, int pointsCount) {
+        if (from < 0 || from > to || to > pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException(
+                "Диапазон [" + from + ", " + to + ") вне границ [0, " + pointsCount + "]");
+        }
+        checkRemaining(pointsCount - (to - from), to - from);
+    }
+
+    static void checkRemaining(int remaining, int removed) {
+        if (removed > 0 && remaining < 2) {
+            throw new IllegalStateException("Нельзя удалить точки: функция должна содержать минимум 2 точки");
+        }
+    }
+}
@@ -0,0 +1,533 @@
+package functions;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+// Табулированная функция, хранящая точки в сжатых блоках по BLOCK_SIZE точек.
+// Первая точка блока хранится как есть (по ним ищется блок), остальные - битовым потоком:
+// x - разность второго порядка двоичных представлений (для равномерной сетки почти всегда 0),
+// y - XOR с линейной экстраполяцией двух предыдущих значений в духе Gorilla
+// (у гладких функций совпадают старшие биты). Сжатие без потерь: значения восстанавливаются точно.
+// Блоки распаковываются по требованию, последние распакованные блоки хранятся в небольшом кэше.
+// Изменение y и x точки перекодирует один блок, добавление и удаление - всю функцию
+public class CompressedTabulatedFunction implements TabulatedFunction, Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final double EPSILON = 1e-10;
+    private static final int BLOCK_SIZE = 128;
+    // Кэш распакованных блоков с прямым отображением: слот = номер блока & CACHE_MASK
+    private static final int CACHE_SIZE = 8;
+    private static final int CACHE_MASK = CACHE_SIZE - 1;
+
+    private int pointsCount;
+    // Первая точка каждого блока
+    private double[] blockFirstX;
+    private double[] blockFirstY;
+    // Остальные точки блока в сжатом виде
+    private long[][] blocks;
+    private double rightX;
+    // Распакованный блок неизменяем, поэтому кэш безопасно читать из нескольких потоков
+    private transient DecodedBlock[] cache;
+
+    private static final class DecodedBlock {
+        private final int index;
+        private final double[] xValues;
+        private final double[] yValues;
+
+        DecodedBlock(int index, double[] xValues, double[] yValues) {
+            this.index = index;
+            this.xValues = xValues;
+            this.yValues = yValues;
+        }
+    }
+
+    // Конструкторы; проверки точек выполняет ArrayTabulatedFunction
+    public CompressedTabulatedFunction(FunctionPoint[] points) {
+        this(new ArrayTabulatedFunction(points));
+    }
+
+    public CompressedTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        this(new ArrayTabulatedFunction(leftX, rightX, pointsCount));
+    }
+
+    public CompressedTabulatedFunction(double leftX, double rightX, double[] values) {
+        this(new ArrayTabulatedFunction(leftX, rightX, values));
+    }
+
+    // Сжатая копия точек другой табулированной функции; точки читаются одним обходом
+    public CompressedTabulatedFunction(TabulatedFunction function) {
+        BulkPoints points = BulkPoints.of(function);
+        encode(points.xValues, points.yValues, points.count);
+    }
+
+    // Методы для работы с функцией
+    public double getLeftDomainBorder() {
+        return blockFirstX[0];
+    }
+
+    public double getRightDomainBorder() {
+        return rightX;
+    }
+
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() - EPSILON || x > getRightDomainBorder() + EPSILON) {
+            return Double.NaN;
+        }
+
+        // Нужен наименьший j >= 1, для которого x(j) >= x - EPSILON; интервал [j - 1, j].
+        // Блок b - последний, первая точка которого меньше x - EPSILON (или нулевой)
+        double target = x - EPSILON;
+        int low = 0;
+        int high = blockFirstX.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (blockFirstX[mid] < target) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        DecodedBlock block = decodedBlock(low);
+        double[] xs = block.xValues;
+
+        // Первая точка блока после нулевой, не меньшая x - EPSILON
+        int k = 1;
+        int end = xs.length;
+        while (k < end) {
+            int mid = (k + end) >>> 1;
+            if (xs[mid] < target) {
+                k = mid + 1;
+            } else {
+                end = mid;
+            }
+        }
+        double x1 = xs[k - 1];
+        double y1 = block.yValues[k - 1];
+        double x2;
+        double y2;
+        if (k < xs.length) {
+            x2 = xs[k];
+            y2 = block.yValues[k];
+        } else {
+            // Правый конец интервала - первая точка следующего блока
+            x2 = blockFirstX[low + 1];
+            y2 = blockFirstY[low + 1];
+        }
+
+        // Если x совпадает с одной из точек (в пределах epsilon)
+        if (Math.abs(x1 - x) < EPSILON) {
+            return y1;
+        }
+        if (Math.abs(x2 - x) < EPSILON) {
+            return y2;
+        }
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    // Методы для работы с точками
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        DecodedBlock block = decodedBlock(index / BLOCK_SIZE);
+        return new FunctionPoint(block.xValues[index % BLOCK_SIZE], block.yValues[index % BLOCK_SIZE]);
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return decodedBlock(index / BLOCK_SIZE).xValues[index % BLOCK_SIZE];
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return decodedBlock(index / BLOCK_SIZE).yValues[index % BLOCK_SIZE];
+    }
+
+    // Обход и копирование точек поблочно: каждый блок распаковывается один раз
+    @Override
+    public void forEachPoint(DoubleBiConsumer action) {
+        for (int b = 0; b < blocks.length; b++) {
+            DecodedBlock block = decodedBlock(b);
+            for (int i = 0; i < block.xValues.length; i++) {
+                action.accept(block.xValues[i], block.yValues[i]);
+            }
+        }
+    }
+
+    @Override
+    public void copyXs(double[] destination) {
+        if (destination.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        for (int b = 0; b < blocks.length; b++) {
+            DecodedBlock block = decodedBlock(b);
+            System.arraycopy(block.xValues, 0, destination, b * BLOCK_SIZE, block.xValues.length);
+        }
+    }
+
+    @Override
+    public void copyYs(double[] destination) {
+        if (destination.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        for (int b = 0; b < blocks.length; b++) {
+            DecodedBlock block = decodedBlock(b);
+            System.arraycopy(block.yValues, 0, destination, b * BLOCK_SIZE, block.yValues.length);
+        }
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws
+            FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkIndex(index);
+        checkNeighbours(index, point.getX(), "X-координата точки");
+        replacePoint(index, point.getX(), point.getY());
+    }
+
+    public void setPointX(int index, double x) throws
+            FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkIndex(index);
+        checkNeighbours(index, x, "X-координата");
+        replacePoint(index, x, getPointY(index));
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        replacePoint(index, getPointX(index), y);
+    }
+
+    // Добавление и удаление сдвигают границы блоков: функция распаковывается,
+    // изменяется как ArrayTabulatedFunction и сжимается заново
+    public void deletePoint(int index) throws
+            FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        ArrayTabulatedFunction function = decodeAll();
+        function.deletePoint(index);
+        encode(function);
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        ArrayTabulatedFunction function = decodeAll();
+        function.addPoint(point);
+        encode(function);
+    }
+
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        ArrayTabulatedFunction function = decodeAll();
+        function.addPoints(xs, ys);
+        encode(function);
+    }
+
+    public void deleteRange(int from, int to) throws
+            FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        ArrayTabulatedFunction function = decodeAll();
+        function.deleteRange(from, to);
+        encode(function);
+    }
+
+    public boolean removeIf(DoubleBiPredicate filter) throws IllegalStateException {
+        ArrayTabulatedFunction function = decodeAll();
+        if (!function.removeIf(filter)) {
+            return false;
+        }
+        encode(function);
+        return true;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " вне границ [0, " + (pointsCount-1) + "]");
+        }
+    }
+
+    // Проверка корректности новой x-координаты
+    private void checkNeighbours(int index, double x, String subject) throws InappropriateFunctionPointException {
+        if (index > 0 && x <= getPointX(index - 1) + EPSILON) {
+            throw new InappropriateFunctionPointException(
+                subject + " (" + x + ") должна быть больше предыдущей (" + getPointX(index - 1) + ")");
+        }
+        if (index < pointsCount - 1 && x >= getPointX(index + 1) - EPSILON) {
+            throw new InappropriateFunctionPointException(
+                subject + " (" + x + ") должна быть меньше следующей (" + getPointX(index + 1) + ")");
+        }
+    }
+
+    // Замена одной точки: перекодируется только её блок
+    private void replacePoint(int index, double x, double y) {
+        int blockIndex = index / BLOCK_SIZE;
+        DecodedBlock block = decodedBlock(blockIndex);
+        double[] xValues = block.xValues.clone();
+        double[] yValues = block.yValues.clone();
+        xValues[index % BLOCK_SIZE] = x;
+        yValues[index % BLOCK_SIZE] = y;
+
+        blockFirstX[blockIndex] = xValues[0];
+        blockFirstY[blockIndex] = yValues[0];
+        blocks[blockIndex] = encodeBlock(xValues, yValues, 0, xValues.length);
+        if (index == pointsCount - 1) {
+            rightX = x;
+        }
+        cache()[blockIndex & CACHE_MASK] = new DecodedBlock(blockIndex, xValues, yValues);
+    }
+
+    // Кодирование
+
+    private void encode(ArrayTabulatedFunction function) {
+        int count = function.getPointsCount();
+        double[] xValues = new double[count];
+        double[] yValues = new double[count];
+        function.copyXs(xValues);
+        function.copyYs(yValues);
+        encode(xValues, yValues, count);
+    }
+
+    private void encode(double[] xValues, double[] yValues, int count) {
+        int blocksCount = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        double[] firstX = new double[blocksCount];
+        double[] firstY = new double[blocksCount];
+        long[][] encoded = new long[blocksCount][];
+        for (int b = 0; b < blocksCount; b++) {
+            int from = b * BLOCK_SIZE;
+            int to = Math.min(from + BLOCK_SIZE, count);
+            firstX[b] = xValues[from];
+            firstY[b] = yValues[from];
+            encoded[b] = encodeBlock(xValues, yValues, from, to);
+        }
+
+        this.pointsCount = count;
+        this.blockFirstX = firstX;
+        this.blockFirstY = firstY;
+        this.blocks = encoded;
+        this.rightX = xValues[count - 1];
+        this.cache = new DecodedBlock[CACHE_SIZE];
+    }
+
+    // Точки [from + 1, to); точка from хранится отдельно
+    private static long[] encodeBlock(double[] xValues, double[] yValues, int from, int to) {
+        BitWriter out = new BitWriter();
+
+        long previousX = Double.doubleToRawLongBits(xValues[from]);
+        long previousDelta = 0;
+        for (int i = from + 1; i < to; i++) {
+            long bits = Double.doubleToRawLongBits(xValues[i]);
+            long delta = bits - previousX;
+            writeDeltaOfDelta(out, delta - previousDelta);
+            previousX = bits;
+            previousDelta = delta;
+        }
+
+        int previousLeading = -1;
+        int previousTrailing = 0;
+        for (int i = from + 1; i < to; i++) {
+            long xor = Double.doubleToRawLongBits(yValues[i])
+                    ^ Double.doubleToRawLongBits(predictY(yValues, from, i));
+            if (xor == 0) {
+                out.write(0, 1);
+                continue;
+            }
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                // Значащие биты помещаются в окно предыдущего значения
+                out.write(0b01, 2);
+                out.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                int significant = 64 - leading - trailing;
+                out.write(0b11, 2);
+                out.write(leading, 5);
+                out.write(significant - 1, 6);
+                out.write(xor >>> trailing, significant);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+        return out.toArray();
+    }
+
+    // Разность второго порядка в зигзаг-кодировке с префиксом длины: 0, 10, 110, 1110, 1111
+    private static void writeDeltaOfDelta(BitWriter out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        if (zigzag == 0) {
+            out.write(0, 1);
+        } else if (zigzag >>> 7 == 0) {
+            out.write(0b01, 2);
+            out.write(zigzag, 7);
+        } else if (zigzag >>> 12 == 0) {
+            out.write(0b011, 3);
+            out.write(zigzag, 12);
+        } else if (zigzag >>> 20 == 0) {
+            out.write(0b0111, 4);
+            out.write(zigzag, 20);
+        } else {
+            out.write(0b1111, 4);
+            out.write(zigzag, 64);
+        }
+    }
+
+    // Предсказание y(i) по уже известным значениям блока. Двоичное представление NaN
+    // из арифметики не гарантировано, поэтому вместо него берётся предыдущее значение
+    private static double predictY(double[] yValues, int from, int i) {
+        if (i - 1 == from) {
+            return yValues[i - 1];
+        }
+        double predicted = 2 * yValues[i - 1] - yValues[i - 2];
+        return Double.isNaN(predicted) ? yValues[i - 1] : predicted;
+    }
+
+    // Распаковка
+
+    private DecodedBlock[] cache() {
+        DecodedBlock[] slots = cache;
+        if (slots == null) {
+            // После десериализации; одновременное создание несколькими потоками безвредно
+            slots = new DecodedBlock[CACHE_SIZE];
+            cache = slots;
+        }
+        return slots;
+    }
+
+    private DecodedBlock decodedBlock(int blockIndex) {
+        DecodedBlock[] slots = cache();
+        DecodedBlock block = slots[blockIndex & CACHE_MASK];
+        if (block == null || block.index != blockIndex) {
+            block = decodeBlock(blockIndex);
+            slots[blockIndex & CACHE_MASK] = block;
+        }
+        return block;
+    }
+
+    private DecodedBlock decodeBlock(int blockIndex) {
+        int count = Math.min(BLOCK_SIZE, pointsCount - blockIndex * BLOCK_SIZE);
+        double[] xValues = new double[count];
+        double[] yValues = new double[count];
+        xValues[0] = blockFirstX[blockIndex];
+        yValues[0] = blockFirstY[blockIndex];
+        BitReader in = new BitReader(blocks[blockIndex]);
+
+        long previousX = Double.doubleToRawLongBits(xValues[0]);
+        long previousDelta = 0;
+        for (int i = 1; i < count; i++) {
+            long delta = previousDelta + readDeltaOfDelta(in);
+            previousX += delta;
+            xValues[i] = Double.longBitsToDouble(previousX);
+            previousDelta = delta;
+        }
+
+        int previousLeading = 0;
+        int previousTrailing = 0;
+        for (int i = 1; i < count; i++) {
+            long xor = 0;
+            long prefix = in.peek(2);
+            if ((prefix & 1) == 0) {
+                in.skip(1);
+            } else {
+                if (prefix == 0b11) {
+                    // Префикс, длина нулей слева и количество значащих битов читаются разом
+                    long header = in.read(13);
+                    previousLeading = (int) (header >>> 2) & 31;
+                    previousTrailing = 64 - previousLeading - ((int) (header >>> 7) + 1);
+                } else {
+                    in.skip(2);
+                }
+                xor = in.read(64 - previousLeading - previousTrailing) << previousTrailing;
+            }
+            yValues[i] = Double.longBitsToDouble(Double.doubleToRawLongBits(predictY(yValues, 0, i)) ^ xor);
+        }
+        return new DecodedBlock(blockIndex, xValues, yValues);
+    }
+
+    private static long readDeltaOfDelta(BitReader in) {
+        // Количество единиц в префиксе (не более 4)
+        int ones = Long.numberOfTrailingZeros(~in.peek(4));
+        long zigzag;
+        switch (ones) {
+            case 0:
+                in.skip(1);
+                return 0;
+            case 1:
+                in.skip(2);
+                zigzag = in.read(7);
+                break;
+            case 2:
+                in.skip(3);
+                zigzag = in.read(12);
+                break;
+            case 3:
+                in.skip(4);
+                zigzag = in.read(20);
+                break;
+            default:
+                in.skip(4);
+                zigzag = in.read(64);
+                break;
+        }
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private ArrayTabulatedFunction decodeAll() {
+        double[] xValues = new double[pointsCount];
+        double[] yValues = new double[pointsCount];
+        for (int b = 0; b < blocks.length; b++) {
+            DecodedBlock block = decodedBlock(b);
+            System.arraycopy(block.xValues, 0, xValues, b * BLOCK_SIZE, block.xValues.length);
+            System.arraycopy(block.yValues, 0, yValues, b * BLOCK_SIZE, block.yValues.length);
+        }
+        return TabulatedFunctions.fromArrays(xValues, yValues);
+    }
+
+    // Битовый поток: биты заполняют слова long от младших к старшим
+    private static final class BitWriter {
+        private long[] words = new long[4];
+        private int position;
+
+        // Младшие bits битов value (1 <= bits <= 64)
+        void write(long value, int bits) {
+            if (bits < 64) {
+                value &= (1L << bits) - 1;
+            }
+            int word = position >>> 6;
+            int used = position & 63;
+            if (word + 1 >= words.length) {
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+            words[word] |= value << used;
+            if (used + bits > 64) {
+                words[word + 1] |= value >>> (64 - used);
+            }
+            position += bits;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(words, (position + 63) >>> 6);
+        }
+    }
+
+    private static final class BitReader {
+        private final long[] words;
+        private int position;
+
+        BitReader(long[] words) {
+            this.words = words;
+        }
+
+        // Следующие bits битов без продвижения; за концом потока - нули
+        long peek(int bits) {
+            int word = position >>> 6;
+            int used = position & 63;
+            long value = words[word] >>> used;
+            if (used + bits > 64 && word + 1 < words.length) {
+                value |= words[word + 1] << (64 - used);
+            }
+            return bits < 64 ? value & ((1L << bits) - 1) : value;
+        }
+
+        void skip(int bits) {
+            position += bits;
+        }
+
+        long read(int bits) {
+            long value = peek(bits);
+            position += bits;
+            return value;
+        }
+    }
+}
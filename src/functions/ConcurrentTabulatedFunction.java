@@ -0,0 +1,186 @@
+package functions;
+
+import java.io.Serializable;
+
+// Табулированная функция для одновременного чтения из многих потоков. Точки хранятся в
+// неизменяемом снимке (ArrayTabulatedFunction, который после публикации не меняется),
+// ссылка на снимок - volatile. Чтение берёт текущий снимок и никогда не блокируется;
+// запись копирует снимок, изменяет копию и публикует её (copy-on-write). Писатели
+// упорядочены блокировкой объекта, несколько изменений объединяются методом update
+public class ConcurrentTabulatedFunction implements TabulatedFunction, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Пакетное изменение функции; выполняется над копией снимка
+    public interface Update {
+        void apply(TabulatedFunction function) throws InappropriateFunctionPointException;
+    }
+
+    private volatile ArrayTabulatedFunction snapshot;
+
+    // Конструкторы
+    public ConcurrentTabulatedFunction(FunctionPoint[] points) {
+        this.snapshot = new ArrayTabulatedFunction(points);
+    }
+
+    public ConcurrentTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        this.snapshot = new ArrayTabulatedFunction(leftX, rightX, pointsCount);
+    }
+
+    public ConcurrentTabulatedFunction(double leftX, double rightX, double[] values) {
+        this.snapshot = new ArrayTabulatedFunction(leftX, rightX, values);
+    }
+
+    // Копия точек другой табулированной функции; точки читаются одним обходом
+    public ConcurrentTabulatedFunction(TabulatedFunction function) {
+        BulkPoints points = BulkPoints.of(function);
+        this.snapshot = TabulatedFunctions.fromArrays(points.xValues, points.yValues);
+    }
+
+    // Согласованная копия всех точек на момент вызова. Последовательность отдельных
+    // вызовов (getPointsCount, затем getPointX) может увидеть разные снимки,
+    // поэтому для обхода точек при конкурентной записи следует использовать копию
+    public TabulatedFunction snapshot() {
+        return snapshot.copy();
+    }
+
+    // Текущий снимок без копирования; внутри пакета используется только для чтения
+    ArrayTabulatedFunction currentSnapshot() {
+        return snapshot;
+    }
+
+    // Методы для работы с функцией (без блокировок)
+    public double getLeftDomainBorder() {
+        return snapshot.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return snapshot.getRightDomainBorder();
+    }
+
+    public double getFunctionValue(double x) {
+        return snapshot.getFunctionValue(x);
+    }
+
+    // Все значения вычисляются по одному снимку
+    @Override
+    public void getFunctionValues(double[] arguments, int argumentsOffset, double[] values, int offset, int length) {
+        snapshot.getFunctionValues(arguments, argumentsOffset, values, offset, length);
+    }
+
+    // Курсор вычисляет по текущему снимку; после публикации нового снимка заводит курсор заново
+    @Override
+    public TabulatedCursor cursor() {
+        return new TabulatedCursor() {
+            private ArrayTabulatedFunction source = snapshot;
+            private TabulatedCursor cursor = source.cursor();
+
+            @Override
+            public double getFunctionValue(double x) {
+                ArrayTabulatedFunction current = snapshot;
+                if (current != source) {
+                    source = current;
+                    cursor = current.cursor();
+                }
+                return cursor.getFunctionValue(x);
+            }
+        };
+    }
+
+    // Методы для работы с точками
+    public int getPointsCount() {
+        return snapshot.getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        return snapshot.getPoint(index);
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        return snapshot.getPointX(index);
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        return snapshot.getPointY(index);
+    }
+
+    // Обход выполняется по одному снимку, поэтому видит согласованный набор точек
+    @Override
+    public void forEachPoint(DoubleBiConsumer action) {
+        snapshot.forEachPoint(action);
+    }
+
+    @Override
+    public void copyXs(double[] destination) {
+        snapshot.copyXs(destination);
+    }
+
+    @Override
+    public void copyYs(double[] destination) {
+        snapshot.copyYs(destination);
+    }
+
+    // Пакетное изменение: все операции применяются к одной копии и публикуются вместе.
+    // Если операция выбрасывает исключение, ни одно из изменений пакета не публикуется.
+    // Публикуется не сам объект, переданный в apply, а его копия: вызывающий код мог
+    // сохранить ссылку, и её последующие изменения не должны попасть в снимок
+    public synchronized void update(Update update) throws InappropriateFunctionPointException {
+        ArrayTabulatedFunction copy = snapshot.copy();
+        update.apply(copy);
+        snapshot = copy.copy();
+    }
+
+    // Одиночные изменения: копия на каждую операцию
+    public synchronized void setPoint(int index, FunctionPoint point) throws
+            FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        ArrayTabulatedFunction copy = snapshot.copy();
+        copy.setPoint(index, point);
+        snapshot = copy;
+    }
+
+    public synchronized void setPointX(int index, double x) throws
+            FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        ArrayTabulatedFunction copy = snapshot.copy();
+        copy.setPointX(index, x);
+        snapshot = copy;
+    }
+
+    public synchronized void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        ArrayTabulatedFunction copy = snapshot.copy();
+        copy.setPointY(index, y);
+        snapshot = copy;
+    }
+
+    public synchronized void deletePoint(int index) throws
+            FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        ArrayTabulatedFunction copy = snapshot.copy();
+        copy.deletePoint(index);
+        snapshot = copy;
+    }
+
+    public synchronized void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        ArrayTabulatedFunction copy = snapshot.copy();
+        copy.addPoint(point);
+        snapshot = copy;
+    }
+
+    // Пакетные изменения публикуются одним снимком
+    public synchronized void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        ArrayTabulatedFunction copy = snapshot.copy();
+        copy.addPoints(xs, ys);
+        snapshot = copy;
+    }
+
+    public synchronized void deleteRange(int from, int to) throws
+            FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        ArrayTabulatedFunction copy = snapshot.copy();
+        copy.deleteRange(from, to);
+        snapshot = copy;
+    }
+
+    public synchronized boolean removeIf(DoubleBiPredicate filter) throws IllegalStateException {
+        ArrayTabulatedFunction copy = snapshot.copy();
+        boolean removed = copy.removeIf(filter);
+        snapshot = copy;
+        return removed;
+    }
+}
@@ -0,0 +1,6 @@
+package functions;
+
+// Обработчик пары (x, y) без упаковки в объекты
+public interface DoubleBiConsumer {
+    void accept(double x, double y);
+}
@@ -0,0 +1,6 @@
+package functions;
+
+// Условие над парой (x, y) без упаковки в объекты
+public interface DoubleBiPredicate {
+    boolean test(double x, double y);
+}
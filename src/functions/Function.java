@@ -4,4 +4,19 @@ public interface Function {
     double getLeftDomainBorder();
     double getRightDomainBorder();
     double getFunctionValue(double x);
+
+    // Пакетное вычисление: values[offset + i] = f(xValues[xOffset + i]) для i из [0, length).
+    // Области входного и выходного массивов могут совпадать (вычисление на месте)
+    default void getFunctionValues(double[] xValues, int xOffset, double[] values, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            values[offset + i] = getFunctionValue(xValues[xOffset + i]);
+        }
+    }
+
+    default void getFunctionValues(double[] xValues, double[] values) {
+        if (values.length < xValues.length) {
+            throw new IllegalArgumentException("Массив результатов короче массива аргументов");
+        }
+        getFunctionValues(xValues, 0, values, 0, xValues.length);
+    }
 }
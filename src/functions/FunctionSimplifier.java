@@ -0,0 +1,147 @@
+package functions;
+
+import functions.basic.Constant;
+import functions.meta.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Упрощение деревьев функций из functions.meta: результат вычисляет ту же функцию
+// (с точностью до порядка округлений), но с меньшим числом обёрток
+final class FunctionSimplifier {
+    private FunctionSimplifier() {
+        throw new AssertionError("Не удается создать экземпляр служебного класса");
+    }
+
+    static Function simplify(Function function) {
+        if (function instanceof Shift) {
+            return simplifyShift((Shift) function);
+        }
+        if (function instanceof Scale) {
+            return simplifyScale((Scale) function);
+        }
+        if (function instanceof Power) {
+            Power power = (Power) function;
+            Function inner = simplify(power.getFunction());
+            if (power.getPower() == 1) {
+                return inner;
+            }
+            // Квадрат и куб - умножением значения на себя: умножения быстрее Math.pow, но могут
+            // отличаться от него в последнем разряде, поэтому замена делается только здесь.
+            // Внутренняя функция по-прежнему вычисляется один раз
+            if (power.getPower() == 2 || power.getPower() == 3) {
+                return foldConstant(Power.byMultiplication(inner, (int) power.getPower()), inner);
+            }
+            return foldConstant(new Power(inner, power.getPower()), inner);
+        }
+        if (function instanceof Composition) {
+            Composition composition = (Composition) function;
+            Function outer = simplify(composition.getOuterFunction());
+            Function inner = simplify(composition.getInnerFunction());
+            // Композиция с постоянной внутренней функцией постоянна
+            return foldConstant(new Composition(outer, inner), inner);
+        }
+        if (function instanceof Sum) {
+            List<Function> terms = flatten(((Sum) function).getFunctions(), Sum.class);
+            double constant = 0;
+            int constantsCount = 0;
+            List<Function> rest = new ArrayList<>();
+            for (Function term : terms) {
+                if (term instanceof Constant) {
+                    constant += ((Constant) term).getValue();
+                    constantsCount++;
+                } else {
+                    rest.add(term);
+                }
+            }
+            if (constantsCount > 0) {
+                rest.add(new Constant(constant));
+            }
+            return foldConstant(new Sum(rest.toArray(new Function[0])), rest.toArray(new Function[0]));
+        }
+        if (function instanceof Mult) {
+            List<Function> factors = flatten(((Mult) function).getFunctions(), Mult.class);
+            double constant = 1;
+            int constantsCount = 0;
+            List<Function> rest = new ArrayList<>();
+            for (Function factor : factors) {
+                if (factor instanceof Constant) {
+                    constant *= ((Constant) factor).getValue();
+                    constantsCount++;
+                } else {
+                    rest.add(factor);
+                }
+            }
+            if (constantsCount > 0) {
+                rest.add(new Constant(constant));
+            }
+            return foldConstant(new Mult(rest.toArray(new Function[0])), rest.toArray(new Function[0]));
+        }
+        // Базовые и табулированные функции не упрощаются
+        return function;
+    }
+
+    private static Function simplifyShift(Shift shift) {
+        Function inner = simplify(shift.getFunction());
+        double shiftX = shift.getShiftX();
+        double shiftY = shift.getShiftY();
+        // Сдвиг сдвига: f(x + a + c) + b + d
+        if (inner instanceof Shift) {
+            Shift innerShift = (Shift) inner;
+            shiftX += innerShift.getShiftX();
+            shiftY += innerShift.getShiftY();
+            inner = innerShift.getFunction();
+        }
+        if (shiftX == 0 && shiftY == 0) {
+            return inner;
+        }
+        return foldConstant(new Shift(inner, shiftX, shiftY), inner);
+    }
+
+    private static Function simplifyScale(Scale scale) {
+        Function inner = simplify(scale.getFunction());
+        double scaleX = scale.getScaleX();
+        double scaleY = scale.getScaleY();
+        // Масштабирование масштабирования: f(x * c * a) * b * d
+        if (inner instanceof Scale) {
+            Scale innerScale = (Scale) inner;
+            scaleX *= innerScale.getScaleX();
+            scaleY *= innerScale.getScaleY();
+            inner = innerScale.getFunction();
+        }
+        if (scaleX == 1 && scaleY == 1) {
+            return inner;
+        }
+        return foldConstant(new Scale(inner, scaleX, scaleY), inner);
+    }
+
+    // Раскрытие вложенных узлов того же вида (упрощённые дочерние узлы уже плоские)
+    private static List<Function> flatten(Function[] functions, Class<? extends Function> type) {
+        List<Function> result = new ArrayList<>();
+        for (Function function : functions) {
+            Function simplified = simplify(function);
+            if (type == Sum.class && simplified instanceof Sum) {
+                result.addAll(List.of(((Sum) simplified).getFunctions()));
+            } else if (type == Mult.class && simplified instanceof Mult) {
+                result.addAll(List.of(((Mult) simplified).getFunctions()));
+            } else {
+                result.add(simplified);
+            }
+        }
+        return result;
+    }
+
+    // Узел, определённый на всей прямой и зависящий только от констант, заменяется своим значением
+    private static Function foldConstant(Function node, Function... children) {
+        for (Function child : children) {
+            if (!(child instanceof Constant)) {
+                return node;
+            }
+        }
+        if (node.getLeftDomainBorder() != Double.NEGATIVE_INFINITY
+                || node.getRightDomainBorder() != Double.POSITIVE_INFINITY) {
+            return node;
+        }
+        return new Constant(node.getFunctionValue(0));
+    }
+}
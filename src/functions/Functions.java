@@ -31,4 +31,26 @@ public class Functions {
     public static Function composition(Function f1, Function f2) {
         return new Composition(f1, f2);
     }
-}
\ No newline at end of file
+
+    // Эквивалентная функция с упрощённым деревом обёрток: слияние вложенных Shift/Scale,
+    // свёртка констант, удаление тождественных обёрток, уплощение Sum/Mult
+    public static Function simplify(Function f) {
+        return FunctionSimplifier.simplify(f);
+    }
+
+    // Компиляция дерева функций в одну цепочку MethodHandle для многократного вычисления
+    public static Function compile(Function f) {
+        return FunctionCompiler.compile(f);
+    }
+
+    // Кэширующая обёртка: не более capacity последних значений с заданной политикой вытеснения
+    public static Function cached(Function f, int capacity, Cached.Policy policy) {
+        return new Cached(f, capacity, policy);
+    }
+
+    // Инструментированная копия дерева: счётчики и гистограммы задержек в каждом узле,
+    // публикация показателей через JMX методом register
+    public static Instrumented instrument(Function f) {
+        return Instrumented.instrument(f);
+    }
+}
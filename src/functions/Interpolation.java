@@ -0,0 +1,94 @@
+package functions;
+
+// Кубическая эрмитова интерполяция по наклонам в точках. Естественный сплайн и PCHIP
+// отличаются только способом вычисления наклонов, значение на интервале считается одинаково
+final class Interpolation {
+    private Interpolation() {
+        throw new AssertionError("Не удается создать экземпляр служебного класса");
+    }
+
+    // Значение кубического многочлена Эрмита на [x1, x2] с наклонами d1 и d2 на концах
+    static double hermite(double x1, double y1, double d1, double x2, double y2, double d2, double x) {
+        double h = x2 - x1;
+        double delta = (y2 - y1) / h;
+        double c2 = (3 * delta - 2 * d1 - d2) / h;
+        double c3 = (d1 + d2 - 2 * delta) / (h * h);
+        double s = x - x1;
+        return y1 + s * (d1 + s * (c2 + s * c3));
+    }
+
+    // Наклон PCHIP во внутренней точке (x, y) между соседями: взвешенное гармоническое
+    // среднее соседних разностей, 0 в точке экстремума (Фритч - Бутланд)
+    static double pchipSlope(double prevX, double prevY, double x, double y, double nextX, double nextY) {
+        double h0 = x - prevX;
+        double h1 = nextX - x;
+        double delta0 = (y - prevY) / h0;
+        double delta1 = (nextY - y) / h1;
+        if (delta0 * delta1 <= 0) {
+            return 0;
+        }
+        double w0 = 2 * h1 + h0;
+        double w1 = h1 + 2 * h0;
+        return (w0 + w1) / (w0 / delta0 + w1 / delta1);
+    }
+
+    // Наклон PCHIP в крайней точке (x0, y0) по ней и двум ближайшим точкам; для правого конца
+    // точки передаются в обратном порядке. Трёхточечная формула с ограничением монотонности
+    static double pchipEndSlope(double x0, double y0, double x1, double y1, double x2, double y2) {
+        double h0 = x1 - x0;
+        double h1 = x2 - x1;
+        double delta0 = (y1 - y0) / h0;
+        double delta1 = (y2 - y1) / h1;
+        double slope = ((2 * h0 + h1) * delta0 - h0 * delta1) / (h0 + h1);
+        if (Math.signum(slope) != Math.signum(delta0)) {
+            return 0;
+        }
+        if (Math.signum(delta0) != Math.signum(delta1) && Math.abs(slope) > 3 * Math.abs(delta0)) {
+            return 3 * delta0;
+        }
+        return slope;
+    }
+
+    // Наклон PCHIP в точке index массивов из pointsCount точек
+    static double pchipSlope(double[] xValues, double[] yValues, int pointsCount, int index) {
+        if (pointsCount == 2) {
+            return (yValues[1] - yValues[0]) / (xValues[1] - xValues[0]);
+        }
+        if (index == 0) {
+            return pchipEndSlope(xValues[0], yValues[0], xValues[1], yValues[1], xValues[2], yValues[2]);
+        }
+        int last = pointsCount - 1;
+        if (index == last) {
+            return pchipEndSlope(xValues[last], yValues[last], xValues[last - 1], yValues[last - 1],
+                    xValues[last - 2], yValues[last - 2]);
+        }
+        return pchipSlope(xValues[index - 1], yValues[index - 1], xValues[index], yValues[index],
+                xValues[index + 1], yValues[index + 1]);
+    }
+
+    // Наклоны естественного кубического сплайна: трёхдиагональная система
+    // h(i) d(i-1) + 2 (h(i-1) + h(i)) d(i) + h(i-1) d(i+1) = 3 (h(i) delta(i-1) + h(i-1) delta(i)),
+    // на концах 2 d(0) + d(1) = 3 delta(0) и d(n-2) + 2 d(n-1) = 3 delta(n-2); метод прогонки
+    static void splineSlopes(double[] xValues, double[] yValues, int pointsCount, double[] slopes) {
+        int last = pointsCount - 1;
+        // Прогоночные коэффициенты: d(i) = p(i) - q(i) d(i + 1)
+        double[] q = new double[pointsCount];
+        double h = xValues[1] - xValues[0];
+        double delta = (yValues[1] - yValues[0]) / h;
+        q[0] = 0.5;
+        slopes[0] = 1.5 * delta;
+        for (int i = 1; i < last; i++) {
+            double nextH = xValues[i + 1] - xValues[i];
+            double nextDelta = (yValues[i + 1] - yValues[i]) / nextH;
+            double diagonal = 2 * (h + nextH) - nextH * q[i - 1];
+            q[i] = h / diagonal;
+            slopes[i] = (3 * (nextH * delta + h * nextDelta) - nextH * slopes[i - 1]) / diagonal;
+            h = nextH;
+            delta = nextDelta;
+        }
+        slopes[last] = (3 * delta - slopes[last - 1]) / (2 - q[last - 1]);
+        for (int i = last - 1; i >= 0; i--) {
+            slopes[i] -= q[i] * slopes[i + 1];
+        }
+    }
+}
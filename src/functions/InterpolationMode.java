@@ -0,0 +1,12 @@
+package functions;
+
+// Способ вычисления значений табулированной функции между точками
+public enum InterpolationMode {
+    // Кусочно-линейная интерполяция
+    LINEAR,
+    // Естественный кубический сплайн: непрерывная вторая производная, нулевая на концах
+    CUBIC_SPLINE,
+    // Монотонный кубический эрмитов сплайн (PCHIP): не создаёт экстремумов между точками,
+    // наклоны зависят только от соседних точек
+    PCHIP
+}
@@ -1,21 +1,38 @@
 package functions;
 
 import java.io.*;
-import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class LinkedListTabulatedFunction implements TabulatedFunction, Externalizable {
     private static final double EPSILON = 1e-10;
 
 
 
+    // Индексируемый список с пропусками: над двусвязным списком лежат уровни "экспресс-ссылок",
+    // каждая ссылка хранит свою длину в узлах. Поиск по индексу и по x - O(log n)
+    private static final int MAX_LEVEL = 16;
+    private static final FunctionNode[] NO_SKIP_NEXT = new FunctionNode[0];
+    private static final int[] NO_SKIP_WIDTH = new int[0];
+
     // Внутренний класс для узла списка
     private static class FunctionNode implements Serializable {
         private FunctionPoint point;
         private FunctionNode prev;
         private FunctionNode next;
+        // Ссылки верхних уровней и их длины; пустая ссылка ведёт за конец списка
+        private final FunctionNode[] skipNext;
+        private final int[] skipWidth;
+        // Наклон в точке для кубической интерполяции
+        private double slope;
         
         public FunctionNode(FunctionPoint point) {
+            this(point, 0);
+        }
+
+        public FunctionNode(FunctionPoint point, int level) {
             this.point = point;
+            this.skipNext = level == 0 ? NO_SKIP_NEXT : new FunctionNode[level];
+            this.skipWidth = level == 0 ? NO_SKIP_WIDTH : new int[level];
         }
         
         // Геттеры и сеттеры
@@ -25,42 +42,39 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         public void setPrev(FunctionNode prev) { this.prev = prev; }
         public FunctionNode getNext() { return next; }
         public void setNext(FunctionNode next) { this.next = next; }
+        public double getSlope() { return slope; }
+        public void setSlope(double slope) { this.slope = slope; }
     }
     
     private FunctionNode head; // голова списка (не хранит данных)
     private int size; // количество элементов
     private FunctionNode lastAccessedNode; // для оптимизации доступа
     private int lastAccessedIndex;
+    private int levelCount; // количество используемых уровней ссылок
+    private InterpolationMode interpolationMode = InterpolationMode.LINEAR;
+    private int modCount; // счётчик удалений узлов: курсор по нему узнаёт, что его узел мог исчезнуть
 
     // Реализация Externalizable
     @Override
     public void writeExternal(ObjectOutput out) throws IOException {
-        out.writeInt(size);
-
-        // Записываем все точки
-        FunctionNode current = head.getNext();
-        for (int i = 0; i < size; i++) {
-            out.writeDouble(current.getPoint().getX());
-            out.writeDouble(current.getPoint().getY());
-            current = current.getNext();
-        }
+        // Координаты собираются в массивы и пишутся блоками в формате PackedPoints
+        double[] xValues = new double[size];
+        double[] yValues = new double[size];
+        copyXs(xValues);
+        copyYs(yValues);
+        PackedPoints.write(out, xValues, yValues, size, 0, interpolationMode);
     }
 
     @Override
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
-        int newSize = in.readInt();
-
-        // Восстанавливаем список
-        head = new FunctionNode(null);
-        head.setNext(head);
-        head.setPrev(head);
-        size = 0;
-
-        for (int i = 0; i < newSize; i++) {
-            double x = in.readDouble();
-            double y = in.readDouble();
-            addNodeToTail().setPoint(new FunctionPoint(x, y));
+        PackedPoints points = PackedPoints.read(in);
+        if (points.pointsCount < 2) {
+            throw new InvalidObjectException("Требуется не менее 2 точек, получено " + points.pointsCount);
         }
+
+        // Восстанавливаем список; наклоны вычисляются уже для прочитанного способа интерполяции
+        interpolationMode = points.interpolationMode;
+        replacePoints(points.xValues, points.yValues, points.pointsCount);
     }
 
     // Конструкторы
@@ -68,7 +82,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
     // Конструктор по умолчанию
     public LinkedListTabulatedFunction() {
         // Инициализация пустого циклического списка с головой
-        head = new FunctionNode(null);
+        head = new FunctionNode(null, MAX_LEVEL);
         head.setNext(head);
         head.setPrev(head);
         size = 0;
@@ -89,7 +103,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         }
 
         // Инициализация циклического списка с головой
-        head = new FunctionNode(null);
+        head = new FunctionNode(null, MAX_LEVEL);
         head.setNext(head);
         head.setPrev(head);
         size = 0;
@@ -111,7 +125,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         }
         
         // Инициализация циклического списка с головой
-        head = new FunctionNode(null);
+        head = new FunctionNode(null, MAX_LEVEL);
         head.setNext(head);
         head.setPrev(head);
         size = 0;
@@ -135,7 +149,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         }
         
         // Инициализация циклического списка с головой
-        head = new FunctionNode(null);
+        head = new FunctionNode(null, MAX_LEVEL);
         head.setNext(head);
         head.setPrev(head);
         size = 0;
@@ -156,35 +170,26 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " вне границ [0, " + (size-1) + "]");
         }
         
-        // Оптимизация: начинаем с последнего доступного узла
         FunctionNode current;
-        if (lastAccessedNode != null && lastAccessedIndex >= 0) {
-            int distance = Math.abs(index - lastAccessedIndex);
-            if (distance < index && distance < size - index) {
-                current = lastAccessedNode;
-                int steps = distance;
-                if (index > lastAccessedIndex) {
-                    // Двигаемся вперед
-                    for (int i = 0; i < steps; i++) {
-                        current = current.getNext();
-                    }
-                } else {
-                    // Двигаемся назад
-                    for (int i = 0; i < steps; i++) {
-                        current = current.getPrev();
-                    }
-                }
-            } else {
-                // Начинаем с головы
-                current = head.getNext();
-                for (int i = 0; i < index; i++) {
-                    current = current.getNext();
-                }
+        if (lastAccessedNode != null && Math.abs(index - lastAccessedIndex) <= 1) {
+            // Соседний с последним доступным узел
+            current = lastAccessedNode;
+            if (index > lastAccessedIndex) {
+                current = current.getNext();
+            } else if (index < lastAccessedIndex) {
+                current = current.getPrev();
             }
         } else {
-            // Начинаем с головы
-            current = head.getNext();
-            for (int i = 0; i < index; i++) {
+            // Спуск по уровням ссылок от головы
+            current = head;
+            int position = -1;
+            for (int level = levelCount - 1; level >= 0; level--) {
+                while (current.skipNext[level] != null && position + current.skipWidth[level] <= index) {
+                    position += current.skipWidth[level];
+                    current = current.skipNext[level];
+                }
+            }
+            for (; position < index; position++) {
                 current = current.getNext();
             }
         }
@@ -194,41 +199,67 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         return current;
     }
     
-    private FunctionNode addNodeToTail() {
-        FunctionNode newNode = new FunctionNode(null);
-        FunctionNode tail = head.getPrev();
-        
-        // Вставляем новый узел перед головой (в конец циклического списка)
-        tail.setNext(newNode);
-        newNode.setPrev(tail);
-        newNode.setNext(head);
-        head.setPrev(newNode);
-        
-        size++;
-        return newNode;
+    // Спуск к позиции index: в update[level] запоминается последний узел уровня перед index,
+    // в positions[level] - его позиция (голова имеет позицию -1). Возвращает узел с позицией index - 1
+    private FunctionNode findPredecessor(int index, FunctionNode[] update, int[] positions) {
+        FunctionNode current = head;
+        int position = -1;
+        for (int level = levelCount - 1; level >= 0; level--) {
+            while (current.skipNext[level] != null && position + current.skipWidth[level] < index) {
+                position += current.skipWidth[level];
+                current = current.skipNext[level];
+            }
+            update[level] = current;
+            positions[level] = position;
+        }
+        for (; position < index - 1; position++) {
+            current = current.getNext();
+        }
+        return current;
     }
     
-    private FunctionNode addNodeByIndex(int index) {
-        if (index < 0 || index > size) {
-            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " вне границ [0, " + size + "]");
+    // Случайная высота узла: каждый следующий уровень с вероятностью 1/4
+    private static int randomLevel() {
+        int level = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (level < MAX_LEVEL && (random.nextInt() & 3) == 0) {
+            level++;
+        }
+        return level;
+    }
+    
+    // Вставка нового узла на позицию index после узла prevNode
+    private FunctionNode insertNode(int index, FunctionNode prevNode, FunctionNode[] update, int[] positions) {
+        int nodeLevel = randomLevel();
+        while (levelCount < nodeLevel) {
+            // Новый уровень: ссылка головы ведёт за конец списка
+            head.skipNext[levelCount] = null;
+            head.skipWidth[levelCount] = size + 1;
+            update[levelCount] = head;
+            positions[levelCount] = -1;
+            levelCount++;
         }
         
-        FunctionNode newNode = new FunctionNode(null);
-        FunctionNode current;
-        
-        if (index == size) {
-            // Вставка в конец
-            current = head;
-        } else {
-            current = getNodeByIndex(index);
+        FunctionNode newNode = new FunctionNode(null, nodeLevel);
+        for (int level = 0; level < levelCount; level++) {
+            FunctionNode before = update[level];
+            if (level < nodeLevel) {
+                int target = positions[level] + before.skipWidth[level];
+                newNode.skipNext[level] = before.skipNext[level];
+                newNode.skipWidth[level] = target + 1 - index;
+                before.skipNext[level] = newNode;
+                before.skipWidth[level] = index - positions[level];
+            } else {
+                before.skipWidth[level]++;
+            }
         }
         
-        // Вставляем перед current
-        FunctionNode prevNode = current.getPrev();
+        // Вставляем после prevNode на нижнем уровне
+        FunctionNode nextNode = prevNode.getNext();
         prevNode.setNext(newNode);
         newNode.setPrev(prevNode);
-        newNode.setNext(current);
-        current.setPrev(newNode);
+        newNode.setNext(nextNode);
+        nextNode.setPrev(newNode);
         
         size++;
         lastAccessedNode = newNode;
@@ -236,6 +267,54 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         return newNode;
     }
     
+    private FunctionNode addNodeToTail() {
+        return addNodeByIndex(size);
+    }
+    
+    // Добавление точек в конец списка подряд: предшественники на всех уровнях
+    // сохраняются между вставками, спуск по уровням выполняется один раз
+    private void appendPoints(double[] xValues, double[] yValues, int count) {
+        FunctionNode[] update = new FunctionNode[MAX_LEVEL];
+        int[] positions = new int[MAX_LEVEL];
+        FunctionNode tail = findPredecessor(size, update, positions);
+        for (int i = 0; i < count; i++) {
+            int index = size;
+            FunctionNode node = insertNode(index, tail, update, positions);
+            node.setPoint(new FunctionPoint(xValues[i], yValues[i]));
+            for (int level = 0; level < node.skipNext.length; level++) {
+                update[level] = node;
+                positions[level] = index;
+            }
+            tail = node;
+        }
+    }
+
+    // Замена всех точек списка точками из массивов за один проход
+    private void replacePoints(double[] xValues, double[] yValues, int count) {
+        head = new FunctionNode(null, MAX_LEVEL);
+        head.setNext(head);
+        head.setPrev(head);
+        size = 0;
+        levelCount = 0;
+        lastAccessedNode = null;
+        lastAccessedIndex = -1;
+        modCount++;
+
+        appendPoints(xValues, yValues, count);
+        computeSlopes();
+    }
+
+    private FunctionNode addNodeByIndex(int index) {
+        if (index < 0 || index > size) {
+            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " вне границ [0, " + size + "]");
+        }
+        
+        FunctionNode[] update = new FunctionNode[MAX_LEVEL];
+        int[] positions = new int[MAX_LEVEL];
+        FunctionNode prevNode = findPredecessor(index, update, positions);
+        return insertNode(index, prevNode, update, positions);
+    }
+    
     private FunctionNode deleteNodeByIndex(int index) {
         if (index < 0 || index >= size) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " вне границ [0, " + (size-1) + "]");
@@ -244,19 +323,59 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
             throw new IllegalStateException("Нельзя удалить точку: функция должна содержать минимум 2 точки");
         }
         
-        FunctionNode nodeToDelete = getNodeByIndex(index);
+        FunctionNode[] update = new FunctionNode[MAX_LEVEL];
+        int[] positions = new int[MAX_LEVEL];
+        FunctionNode nodeToDelete = findPredecessor(index, update, positions).getNext();
+        
+        // Перенаправляем ссылки всех уровней в обход узла
+        for (int level = 0; level < levelCount; level++) {
+            FunctionNode before = update[level];
+            if (level < nodeToDelete.skipNext.length) {
+                before.skipWidth[level] += nodeToDelete.skipWidth[level] - 1;
+                before.skipNext[level] = nodeToDelete.skipNext[level];
+            } else {
+                before.skipWidth[level]--;
+            }
+        }
         
         // Исключаем узел из списка
         nodeToDelete.getPrev().setNext(nodeToDelete.getNext());
         nodeToDelete.getNext().setPrev(nodeToDelete.getPrev());
         
         size--;
+        modCount++;
         lastAccessedNode = null;
         lastAccessedIndex = -1;
         
         return nodeToDelete;
     }
     
+    // Последний узел с x-координатой меньше x - EPSILON (или голова); заполняет update и positions
+    private FunctionNode findPredecessorByX(double x, FunctionNode[] update, int[] positions) {
+        FunctionNode current = head;
+        int position = -1;
+        for (int level = levelCount - 1; level >= 0; level--) {
+            FunctionNode next;
+            while ((next = current.skipNext[level]) != null && next.getPoint().getX() < x - EPSILON) {
+                position += current.skipWidth[level];
+                current = next;
+            }
+            if (update != null) {
+                update[level] = current;
+                positions[level] = position;
+            }
+        }
+        while (current.getNext() != head && current.getNext().getPoint().getX() < x - EPSILON) {
+            current = current.getNext();
+            position++;
+        }
+        if (positions != null) {
+            // Позиция самого узла сохраняется после позиций уровней
+            positions[MAX_LEVEL] = position;
+        }
+        return current;
+    }
+    
     // Методы интерфейса TabulatedFunction
     public double getLeftDomainBorder() {
         if (size == 0) return Double.NaN;
@@ -275,35 +394,218 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         }
         
         // Поиск узла, следующего за точкой с x-координатой, большей или равной x
-        FunctionNode current = head.getNext();
-        for (int i = 0; i < size; i++) {
-            if (current.getPoint().getX() >= x - EPSILON) {
-                // Если x совпадает с текущей точкой
-                if (Math.abs(current.getPoint().getX() - x) < EPSILON) {
-                    return current.getPoint().getY();
+        if (!Double.isNaN(x)) {
+            return valueAfter(findPredecessorByX(x, null, null), x);
+        }
+        
+        // Если x больше всех точек, возвращаем значение последней точки
+        return head.getPrev().getPoint().getY();
+    }
+
+    // Значение в x по последнему узлу prevNode с x-координатой меньше x - EPSILON (или голове)
+    private double valueAfter(FunctionNode prevNode, double x) {
+        FunctionNode current = prevNode.getNext();
+        if (current != head) {
+            // Если x совпадает с текущей точкой или это первая точка
+            if (Math.abs(current.getPoint().getX() - x) < EPSILON || prevNode == head) {
+                return current.getPoint().getY();
+            }
+
+            // Интерполяция между предыдущей и текущей точкой
+            return interpolate(prevNode, current, x);
+        }
+
+        // Если x больше всех точек, возвращаем значение последней точки
+        return head.getPrev().getPoint().getY();
+    }
+
+    // Курсор помнит последний найденный узел. Вперёд он движется по ссылкам верхних уровней
+    // самого узла (переход на d узлов - O(log d) в среднем), при движении назад или после
+    // удаления узлов выполняет обычный спуск от головы
+    @Override
+    public TabulatedCursor cursor() {
+        return new TabulatedCursor() {
+            private FunctionNode node = head;
+            private int expectedModCount = modCount;
+
+            @Override
+            public double getFunctionValue(double x) {
+                if (size == 0) return Double.NaN;
+                if (x < getLeftDomainBorder() - EPSILON || x > getRightDomainBorder() + EPSILON) {
+                    return Double.NaN;
+                }
+                if (Double.isNaN(x)) {
+                    return LinkedListTabulatedFunction.this.getFunctionValue(x);
                 }
-                
-                // Если это первая точка
-                if (i == 0) {
-                    return current.getPoint().getY();
+
+                double bound = x - EPSILON;
+                if (expectedModCount != modCount || node != head && !(node.getPoint().getX() < bound)) {
+                    node = findPredecessorByX(x, null, null);
+                    expectedModCount = modCount;
+                } else {
+                    node = advance(node, bound);
                 }
-                
+                return valueAfter(node, x);
+            }
+        };
+    }
+
+    // Последний узел с x-координатой меньше bound, начиная с узла from левее bound
+    private FunctionNode advance(FunctionNode from, double bound) {
+        FunctionNode current = from;
+        while (true) {
+            // Самая длинная ссылка узла, не перескакивающая bound
+            FunctionNode[] links = current.skipNext;
+            int level = links.length - 1;
+            while (level >= 0 && (links[level] == null || !(links[level].getPoint().getX() < bound))) {
+                level--;
+            }
+            if (level >= 0) {
+                current = links[level];
+                continue;
+            }
+            FunctionNode next = current.getNext();
+            if (next == head || !(next.getPoint().getX() < bound)) {
+                return current;
+            }
+            current = next;
+        }
+    }
+    
+    @Override
+    public void getFunctionValues(double[] xValues, int xOffset, double[] values, int offset, int length) {
+        if (size == 0 || !TabulatedFunctions.isSorted(xValues, xOffset, length)) {
+            TabulatedFunction.super.getFunctionValues(xValues, xOffset, values, offset, length);
+            return;
+        }
+
+        // Отсортированные аргументы: один проход по списку без возврата к голове
+        double left = getLeftDomainBorder() - EPSILON;
+        double right = getRightDomainBorder() + EPSILON;
+        FunctionNode current = head.getNext();
+        for (int k = 0; k < length; k++) {
+            double x = xValues[xOffset + k];
+            if (Double.isNaN(x)) {
+                values[offset + k] = getFunctionValue(x);
+                continue;
+            }
+            if (x < left || x > right) {
+                values[offset + k] = Double.NaN;
+                continue;
+            }
+            while (current.getNext() != head && current.getPoint().getX() < x - EPSILON) {
+                current = current.getNext();
+            }
+
+            FunctionPoint point = current.getPoint();
+            if (Math.abs(point.getX() - x) < EPSILON || current == head.getNext()
+                    || point.getX() < x - EPSILON) {
+                values[offset + k] = point.getY();
+            } else {
                 // Интерполяция между предыдущей и текущей точкой
-                FunctionNode prevNode = current.getPrev();
-                double x1 = prevNode.getPoint().getX();
-                double y1 = prevNode.getPoint().getY();
-                double x2 = current.getPoint().getX();
-                double y2 = current.getPoint().getY();
-                
-                return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+                values[offset + k] = interpolate(current.getPrev(), current, x);
             }
-            current = current.getNext();
         }
-        
-        // Если x больше всех точек, возвращаем значение последней точки
-        return head.getPrev().getPoint().getY();
     }
     
+    private double interpolate(FunctionNode prevNode, FunctionNode node, double x) {
+        double x1 = prevNode.getPoint().getX();
+        double y1 = prevNode.getPoint().getY();
+        double x2 = node.getPoint().getX();
+        double y2 = node.getPoint().getY();
+        if (interpolationMode != InterpolationMode.LINEAR) {
+            return Interpolation.hermite(x1, y1, prevNode.getSlope(), x2, y2, node.getSlope(), x);
+        }
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    // Способ интерполяции
+    public InterpolationMode getInterpolationMode() {
+        return interpolationMode;
+    }
+
+    public void setInterpolationMode(InterpolationMode interpolationMode) {
+        if (interpolationMode == null) {
+            throw new IllegalArgumentException("Способ интерполяции не задан");
+        }
+        this.interpolationMode = interpolationMode;
+        computeSlopes();
+    }
+
+    // Наклоны в узлах вычисляются сразу при изменении способа интерполяции или точек,
+    // поэтому вычисление значений ничего не записывает в узлы
+    private void computeSlopes() {
+        if (interpolationMode == InterpolationMode.LINEAR) {
+            return;
+        }
+        if (interpolationMode == InterpolationMode.CUBIC_SPLINE) {
+            double[] xValues = new double[size];
+            double[] yValues = new double[size];
+            FunctionNode current = head.getNext();
+            for (int i = 0; i < size; i++) {
+                xValues[i] = current.getPoint().getX();
+                yValues[i] = current.getPoint().getY();
+                current = current.getNext();
+            }
+            double[] slopes = new double[size];
+            Interpolation.splineSlopes(xValues, yValues, size, slopes);
+            current = head.getNext();
+            for (int i = 0; i < size; i++) {
+                current.setSlope(slopes[i]);
+                current = current.getNext();
+            }
+        } else {
+            for (FunctionNode current = head.getNext(); current != head; current = current.getNext()) {
+                current.setSlope(pchipSlope(current));
+            }
+        }
+    }
+
+    // Наклон PCHIP в узле по соседним узлам (на концах - по двум следующим)
+    private double pchipSlope(FunctionNode node) {
+        FunctionPoint point = node.getPoint();
+        FunctionNode prev = node.getPrev();
+        FunctionNode next = node.getNext();
+        if (size == 2) {
+            FunctionPoint first = head.getNext().getPoint();
+            FunctionPoint last = head.getPrev().getPoint();
+            return (last.getY() - first.getY()) / (last.getX() - first.getX());
+        }
+        if (prev == head) {
+            FunctionPoint p1 = next.getPoint();
+            FunctionPoint p2 = next.getNext().getPoint();
+            return Interpolation.pchipEndSlope(point.getX(), point.getY(), p1.getX(), p1.getY(), p2.getX(), p2.getY());
+        }
+        if (next == head) {
+            FunctionPoint p1 = prev.getPoint();
+            FunctionPoint p2 = prev.getPrev().getPoint();
+            return Interpolation.pchipEndSlope(point.getX(), point.getY(), p1.getX(), p1.getY(), p2.getX(), p2.getY());
+        }
+        FunctionPoint before = prev.getPoint();
+        FunctionPoint after = next.getPoint();
+        return Interpolation.pchipSlope(before.getX(), before.getY(), point.getX(), point.getY(),
+                after.getX(), after.getY());
+    }
+
+    // Учёт изменения точек около узла: наклоны PCHIP пересчитываются в пределах двух
+    // соседей с каждой стороны и на концах, наклоны сплайна зависят от всех точек
+    private void updateSlopes(FunctionNode node) {
+        if (interpolationMode != InterpolationMode.PCHIP) {
+            computeSlopes();
+            return;
+        }
+        FunctionNode current = node;
+        for (int i = 0; i < 2 && current.getPrev() != head; i++) {
+            current = current.getPrev();
+        }
+        for (int i = 0; i < 5 && current != head; i++) {
+            current.setSlope(pchipSlope(current));
+            current = current.getNext();
+        }
+        head.getNext().setSlope(pchipSlope(head.getNext()));
+        head.getPrev().setSlope(pchipSlope(head.getPrev()));
+    }
+
     public int getPointsCount() {
         return size;
     }
@@ -318,16 +620,17 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         FunctionNode node = getNodeByIndex(index);
         
         // Проверка корректности новой x-координаты
-        if (index > 0 && point.getX() <= getNodeByIndex(index-1).getPoint().getX() + EPSILON) {
+        if (index > 0 && point.getX() <= node.getPrev().getPoint().getX() + EPSILON) {
             throw new InappropriateFunctionPointException(
                 "X-координата точки (" + point.getX() + ") должна быть больше предыдущей");
         }
-        if (index < size - 1 && point.getX() >= getNodeByIndex(index+1).getPoint().getX() - EPSILON) {
+        if (index < size - 1 && point.getX() >= node.getNext().getPoint().getX() - EPSILON) {
             throw new InappropriateFunctionPointException(
                 "X-координата точки (" + point.getX() + ") должна быть меньше следующей");
         }
         
         node.setPoint(new FunctionPoint(point));
+        updateSlopes(node);
     }
     
     public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
@@ -341,55 +644,145 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         FunctionPoint oldPoint = node.getPoint();
         
         // Проверка корректности новой x-координаты
-        if (index > 0 && x <= getNodeByIndex(index-1).getPoint().getX() + EPSILON) {
+        if (index > 0 && x <= node.getPrev().getPoint().getX() + EPSILON) {
             throw new InappropriateFunctionPointException(
                 "X-координата (" + x + ") должна быть больше предыдущей");
         }
-        if (index < size - 1 && x >= getNodeByIndex(index+1).getPoint().getX() - EPSILON) {
+        if (index < size - 1 && x >= node.getNext().getPoint().getX() - EPSILON) {
             throw new InappropriateFunctionPointException(
                 "X-координата (" + x + ") должна быть меньше следующей");
         }
         
         node.setPoint(new FunctionPoint(x, oldPoint.getY()));
+        updateSlopes(node);
     }
     
     public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
         return getNodeByIndex(index).getPoint().getY();
     }
+
+    // Обход списка по ссылкам next вместо поиска узла по индексу для каждой точки
+    @Override
+    public void forEachPoint(DoubleBiConsumer action) {
+        for (FunctionNode current = head.getNext(); current != head; current = current.getNext()) {
+            action.accept(current.getPoint().getX(), current.getPoint().getY());
+        }
+    }
+
+    @Override
+    public void copyXs(double[] destination) {
+        if (destination.length < size) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        int i = 0;
+        for (FunctionNode current = head.getNext(); current != head; current = current.getNext()) {
+            destination[i++] = current.getPoint().getX();
+        }
+    }
+
+    @Override
+    public void copyYs(double[] destination) {
+        if (destination.length < size) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        int i = 0;
+        for (FunctionNode current = head.getNext(); current != head; current = current.getNext()) {
+            destination[i++] = current.getPoint().getY();
+        }
+    }
     
     public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
         FunctionNode node = getNodeByIndex(index);
         FunctionPoint oldPoint = node.getPoint();
         node.setPoint(new FunctionPoint(oldPoint.getX(), y));
+        updateSlopes(node);
     }
     
     public void deletePoint(int index) throws 
             FunctionPointIndexOutOfBoundsException, IllegalStateException {
         
-        deleteNodeByIndex(index);
+        FunctionNode deleted = deleteNodeByIndex(index);
+        // Удалённый узел сохраняет ссылки на бывших соседей
+        updateSlopes(deleted.getPrev() != head ? deleted.getPrev() : deleted.getNext());
     }
     
     public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        // Находим позицию для вставки спуском по уровням
+        FunctionNode[] update = new FunctionNode[MAX_LEVEL];
+        int[] positions = new int[MAX_LEVEL + 1];
+        FunctionNode prevNode = findPredecessorByX(point.getX(), update, positions);
+        
         // Проверяем, нет ли уже точки с такой x-координатой
-        FunctionNode current = head.getNext();
-        for (int i = 0; i < size; i++) {
+        for (FunctionNode current = prevNode.getNext();
+             current != head && current.getPoint().getX() < point.getX() + EPSILON;
+             current = current.getNext()) {
             if (Math.abs(current.getPoint().getX() - point.getX()) < EPSILON) {
                 throw new InappropriateFunctionPointException(
                     "Точка с x=" + point.getX() + " уже существует");
             }
-            current = current.getNext();
-        }
-        
-        // Находим позицию для вставки
-        current = head.getNext();
-        int insertIndex = 0;
-        while (insertIndex < size && current.getPoint().getX() < point.getX() - EPSILON) {
-            current = current.getNext();
-            insertIndex++;
         }
         
         // Вставляем новую точку
-        FunctionNode newNode = addNodeByIndex(insertIndex);
+        FunctionNode newNode = insertNode(positions[MAX_LEVEL] + 1, prevNode, update, positions);
         newNode.setPoint(new FunctionPoint(point));
+        updateSlopes(newNode);
+    }
+
+    // Пакетные операции: точки сливаются или отбираются в массивы за один проход,
+    // затем список строится заново добавлением в конец
+    @Override
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        BulkPoints added = BulkPoints.sorted(xs, ys);
+        double[] xValues = new double[size];
+        double[] yValues = new double[size];
+        copyXs(xValues);
+        copyYs(yValues);
+        added.checkMerge(xValues, size);
+        if (added.count == 0) {
+            return;
+        }
+
+        double[] resultX = new double[size + added.count];
+        double[] resultY = new double[size + added.count];
+        added.merge(xValues, yValues, size, resultX, resultY);
+        replacePoints(resultX, resultY, resultX.length);
+    }
+
+    @Override
+    public void deleteRange(int from, int to) throws
+            FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        BulkPoints.checkRange(from, to, size);
+        if (from == to) {
+            return;
+        }
+
+        double[] xValues = new double[size];
+        double[] yValues = new double[size];
+        copyXs(xValues);
+        copyYs(yValues);
+        System.arraycopy(xValues, to, xValues, from, size - to);
+        System.arraycopy(yValues, to, yValues, from, size - to);
+        replacePoints(xValues, yValues, size - (to - from));
+    }
+
+    @Override
+    public boolean removeIf(DoubleBiPredicate filter) throws IllegalStateException {
+        double[] xValues = new double[size];
+        double[] yValues = new double[size];
+        int kept = 0;
+        for (FunctionNode current = head.getNext(); current != head; current = current.getNext()) {
+            FunctionPoint point = current.getPoint();
+            if (!filter.test(point.getX(), point.getY())) {
+                xValues[kept] = point.getX();
+                yValues[kept] = point.getY();
+                kept++;
+            }
+        }
+        BulkPoints.checkRemaining(kept, size - kept);
+        if (kept == size) {
+            return false;
+        }
+        replacePoints(xValues, yValues, kept);
+        return true;
     }
 }
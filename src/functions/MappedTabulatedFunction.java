@@ -0,0 +1,141 @@
+package functions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+// Табулированная функция только для чтения, отображённая в память из файла в формате
+// TabulatedFunctions.outputTabulatedFunction: int количество точек, затем пары double (x, y).
+// Координаты читаются напрямую из отображения, без копирования в кучу
+public class MappedTabulatedFunction implements TabulatedFunction {
+    private static final double EPSILON = 1e-10;
+    private static final int HEADER_SIZE = Integer.BYTES;
+    private static final int POINT_SIZE = 2 * Double.BYTES;
+    // Отображение разбивается на части: один MappedByteBuffer ограничен 2 ГБ
+    private static final int CHUNK_SHIFT = 26;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private final MappedByteBuffer[] chunks;
+    private final int pointsCount;
+
+    public MappedTabulatedFunction(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException("Файл слишком мал для табулированной функции");
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            int count = header.getInt(0);
+            if (count < 2) {
+                throw new IOException("Требуется не менее 2 точек, в файле " + count);
+            }
+            if (fileSize < HEADER_SIZE + (long) count * POINT_SIZE) {
+                throw new IOException("Файл короче заявленного количества точек (" + count + ")");
+            }
+
+            this.pointsCount = count;
+            this.chunks = new MappedByteBuffer[((count - 1) >>> CHUNK_SHIFT) + 1];
+            for (int i = 0; i < chunks.length; i++) {
+                long first = (long) i << CHUNK_SHIFT;
+                long points = Math.min(1L << CHUNK_SHIFT, count - first);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_SIZE + first * POINT_SIZE, points * POINT_SIZE);
+            }
+        }
+    }
+
+    // Чтение координат без проверки индекса
+    private double x(int index) {
+        return chunks[index >>> CHUNK_SHIFT].getDouble((index & CHUNK_MASK) * POINT_SIZE);
+    }
+
+    private double y(int index) {
+        return chunks[index >>> CHUNK_SHIFT].getDouble((index & CHUNK_MASK) * POINT_SIZE + Double.BYTES);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " вне границ [0, " + (pointsCount-1) + "]");
+        }
+    }
+
+    public double getLeftDomainBorder() {
+        return x(0);
+    }
+
+    public double getRightDomainBorder() {
+        return x(pointsCount - 1);
+    }
+
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() - EPSILON || x > getRightDomainBorder() + EPSILON) {
+            return Double.NaN;
+        }
+
+        // Двоичный поиск интервала: наименьший i, для которого x(i + 1) >= x - EPSILON
+        int low = 0;
+        int high = pointsCount - 2;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (x(mid + 1) < x - EPSILON) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        double x1 = x(low);
+        double x2 = x(low + 1);
+        if (Math.abs(x1 - x) < EPSILON) {
+            return y(low);
+        }
+        if (Math.abs(x2 - x) < EPSILON) {
+            return y(low + 1);
+        }
+        double y1 = y(low);
+        double y2 = y(low + 1);
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return new FunctionPoint(x(index), y(index));
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return x(index);
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return y(index);
+    }
+
+    // Изменение отображённой функции не поддерживается
+    public void setPoint(int index, FunctionPoint point) {
+        throw new UnsupportedOperationException("Отображённая в память функция доступна только для чтения");
+    }
+
+    public void setPointX(int index, double x) {
+        throw new UnsupportedOperationException("Отображённая в память функция доступна только для чтения");
+    }
+
+    public void setPointY(int index, double y) {
+        throw new UnsupportedOperationException("Отображённая в память функция доступна только для чтения");
+    }
+
+    public void deletePoint(int index) {
+        throw new UnsupportedOperationException("Отображённая в память функция доступна только для чтения");
+    }
+
+    public void addPoint(FunctionPoint point) {
+        throw new UnsupportedOperationException("Отображённая в память функция доступна только для чтения");
+    }
+}
@@ -0,0 +1,337 @@
+package functions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Табулированная функция, хранящая точки вне кучи в прямых буферах (ByteBuffer.allocateDirect):
+// пары (x, y) по 16 байт, частями по 2^CHUNK_SHIFT точек. Сборщик мусора не копирует и не
+// просматривает координаты, в куче остаются только объекты буферов.
+// Время жизни задаётся явно: после close() функция недоступна и не держит ссылок на буферы,
+// а их память возвращается системе очистителем буфера при ближайшей сборке мусора. Поток,
+// успевший прочитать ссылку на буфер до закрытия, обращается к ещё не освобождённой памяти
+public class OffHeapTabulatedFunction implements TabulatedFunction, AutoCloseable {
+    private static final double EPSILON = 1e-10;
+    private static final int POINT_SIZE = 2 * Double.BYTES;
+    // Часть содержит до 2^26 точек (1 ГБ): один буфер ограничен 2 ГБ
+    private static final int CHUNK_SHIFT = 26;
+    private static final int CHUNK_POINTS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_POINTS - 1;
+
+    // Все части, кроме последней, заполнены целиком; последняя растёт удвоением
+    private ByteBuffer[] chunks;
+    private int pointsCount;
+
+    // Конструкторы
+    public OffHeapTabulatedFunction(FunctionPoint[] points) {
+        if (points.length < 2) {
+            throw new IllegalArgumentException("Требуется не менее 2 точек");
+        }
+        // Проверка упорядоченности точек
+        for (int i = 1; i < points.length; i++) {
+            if (points[i].getX() <= points[i-1].getX()) {
+                throw new IllegalArgumentException("Точки должны быть упорядочены по X");
+            }
+        }
+        allocate(points.length);
+        for (int i = 0; i < points.length; i++) {
+            put(i, points[i].getX(), points[i].getY());
+        }
+        this.pointsCount = points.length;
+    }
+
+    public OffHeapTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        this(leftX, rightX, new double[Math.max(pointsCount, 0)]);
+    }
+
+    public OffHeapTabulatedFunction(double leftX, double rightX, double[] values) {
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        if (values.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        allocate(values.length + 2);
+        double step = (rightX - leftX) / (values.length - 1);
+        for (int i = 0; i < values.length; i++) {
+            put(i, leftX + i * step, values[i]);
+        }
+        this.pointsCount = values.length;
+    }
+
+    // Копия точек другой табулированной функции
+    public OffHeapTabulatedFunction(TabulatedFunction function) {
+        if (function.getPointsCount() < 2) {
+            throw new IllegalArgumentException("Требуется не менее 2 точек");
+        }
+        allocate(function.getPointsCount());
+        // Точек при обходе может оказаться больше, если источник изменился после getPointsCount
+        function.forEachPoint((x, y) -> {
+            ensureCapacity(pointsCount + 1);
+            put(pointsCount++, x, y);
+        });
+    }
+
+    // Освобождение: буферы больше не достижимы из функции, любые дальнейшие вызовы
+    // завершаются IllegalStateException. Повторное закрытие ничего не делает
+    public void close() {
+        chunks = null;
+        pointsCount = 0;
+    }
+
+    public boolean isClosed() {
+        return chunks == null;
+    }
+
+    private void checkOpen() {
+        if (chunks == null) {
+            throw new IllegalStateException("Функция закрыта");
+        }
+    }
+
+    // Доступ к координатам без проверки индекса
+    private double x(int index) {
+        return chunks[index >>> CHUNK_SHIFT].getDouble((index & CHUNK_MASK) * POINT_SIZE);
+    }
+
+    private double y(int index) {
+        return chunks[index >>> CHUNK_SHIFT].getDouble((index & CHUNK_MASK) * POINT_SIZE + Double.BYTES);
+    }
+
+    private void put(int index, double x, double y) {
+        ByteBuffer chunk = chunks[index >>> CHUNK_SHIFT];
+        int offset = (index & CHUNK_MASK) * POINT_SIZE;
+        chunk.putDouble(offset, x);
+        chunk.putDouble(offset + Double.BYTES, y);
+    }
+
+    // Копирование length точек с позиции from на позицию to в пределах одной части у обеих сторон.
+    // Перекрытие допустимо: абсолютный put ведёт себя как копирование через промежуточный буфер
+    private void copyPoints(int from, int to, int length) {
+        chunks[to >>> CHUNK_SHIFT].put((to & CHUNK_MASK) * POINT_SIZE,
+                chunks[from >>> CHUNK_SHIFT], (from & CHUNK_MASK) * POINT_SIZE, length * POINT_SIZE);
+    }
+
+    // Перенос count точек с позиции from на позицию to отрезками, не пересекающими границы частей
+    private void movePoints(int from, int to, int count) {
+        if (to > from) {
+            // Перенос с конца, чтобы не затереть ещё не перенесённые точки
+            for (int end = count; end > 0; ) {
+                int sourceEnd = from + end;
+                int targetEnd = to + end;
+                int length = Math.min(end, Math.min(((sourceEnd - 1) & CHUNK_MASK) + 1, ((targetEnd - 1) & CHUNK_MASK) + 1));
+                copyPoints(sourceEnd - length, targetEnd - length, length);
+                end -= length;
+            }
+        } else {
+            for (int done = 0; done < count; ) {
+                int source = from + done;
+                int target = to + done;
+                int length = Math.min(count - done,
+                        Math.min(CHUNK_POINTS - (source & CHUNK_MASK), CHUNK_POINTS - (target & CHUNK_MASK)));
+                copyPoints(source, target, length);
+                done += length;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        chunks = new ByteBuffer[0];
+        ensureCapacity(capacity);
+    }
+
+    // Место под capacity точек; содержимое существующих частей сохраняется
+    private void ensureCapacity(int capacity) {
+        if (capacity <= 0) {
+            return;
+        }
+        int lastChunk = (capacity - 1) >>> CHUNK_SHIFT;
+        if (lastChunk >= chunks.length) {
+            ByteBuffer[] grown = new ByteBuffer[lastChunk + 1];
+            System.arraycopy(chunks, 0, grown, 0, chunks.length);
+            chunks = grown;
+        }
+        for (int c = 0; c <= lastChunk; c++) {
+            int required = c < lastChunk ? CHUNK_POINTS : capacity - (c << CHUNK_SHIFT);
+            ByteBuffer chunk = chunks[c];
+            int available = chunk == null ? 0 : chunk.capacity() / POINT_SIZE;
+            if (available < required) {
+                int points = c < lastChunk ? CHUNK_POINTS : (int) Math.min(CHUNK_POINTS, Math.max(required, 2L * available));
+                ByteBuffer grown = ByteBuffer.allocateDirect(points * POINT_SIZE).order(ByteOrder.nativeOrder());
+                if (chunk != null) {
+                    grown.put(chunk.duplicate().clear());
+                }
+                chunks[c] = grown;
+            }
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " вне границ [0, " + (pointsCount-1) + "]");
+        }
+    }
+
+    // Наименьший индекс i в [from, pointsCount), для которого x(i) >= value, или pointsCount
+    private int lowerBound(int from, double value) {
+        int low = from;
+        int high = pointsCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (x(mid) < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Методы для работы с функцией
+    public double getLeftDomainBorder() {
+        checkOpen();
+        return x(0);
+    }
+
+    public double getRightDomainBorder() {
+        checkOpen();
+        return x(pointsCount - 1);
+    }
+
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() - EPSILON || x > getRightDomainBorder() + EPSILON) {
+            return Double.NaN;
+        }
+
+        // Интервал [i, i + 1]: наименьший i, для которого x(i + 1) >= x - EPSILON
+        int i = Math.min(lowerBound(1, x - EPSILON), pointsCount - 1) - 1;
+        double x1 = x(i);
+        double x2 = x(i + 1);
+        // Если x совпадает с одной из точек (в пределах epsilon)
+        if (Math.abs(x1 - x) < EPSILON) {
+            return y(i);
+        }
+        if (Math.abs(x2 - x) < EPSILON) {
+            return y(i + 1);
+        }
+        double y1 = y(i);
+        double y2 = y(i + 1);
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    // Методы для работы с точками
+    public int getPointsCount() {
+        checkOpen();
+        return pointsCount;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkOpen();
+        checkIndex(index);
+        return new FunctionPoint(x(index), y(index));
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkOpen();
+        checkIndex(index);
+        return x(index);
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkOpen();
+        checkIndex(index);
+        return y(index);
+    }
+
+    // Обход и копирование точек без проверки индекса на каждой точке
+    public void forEachPoint(DoubleBiConsumer action) {
+        checkOpen();
+        for (int i = 0; i < pointsCount; i++) {
+            action.accept(x(i), y(i));
+        }
+    }
+
+    public void copyXs(double[] destination) {
+        checkOpen();
+        if (destination.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        for (int i = 0; i < pointsCount; i++) {
+            destination[i] = x(i);
+        }
+    }
+
+    public void copyYs(double[] destination) {
+        checkOpen();
+        if (destination.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        for (int i = 0; i < pointsCount; i++) {
+            destination[i] = y(i);
+        }
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws
+            FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkOpen();
+        checkIndex(index);
+        checkNeighbours(index, point.getX(), "X-координата точки");
+        put(index, point.getX(), point.getY());
+    }
+
+    public void setPointX(int index, double x) throws
+            FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkOpen();
+        checkIndex(index);
+        checkNeighbours(index, x, "X-координата");
+        put(index, x, y(index));
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        checkOpen();
+        checkIndex(index);
+        put(index, x(index), y);
+    }
+
+    // Проверка корректности новой x-координаты
+    private void checkNeighbours(int index, double x, String subject) throws InappropriateFunctionPointException {
+        if (index > 0 && x <= x(index - 1) + EPSILON) {
+            throw new InappropriateFunctionPointException(
+                subject + " (" + x + ") должна быть больше предыдущей (" + x(index - 1) + ")");
+        }
+        if (index < pointsCount - 1 && x >= x(index + 1) - EPSILON) {
+            throw new InappropriateFunctionPointException(
+                subject + " (" + x + ") должна быть меньше следующей (" + x(index + 1) + ")");
+        }
+    }
+
+    // Методы для изменения количества точек
+    public void deletePoint(int index) throws
+            FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        checkOpen();
+        checkIndex(index);
+        if (pointsCount <= 2) {
+            throw new IllegalStateException("Нельзя удалить точку: функция должна содержать минимум 2 точки");
+        }
+
+        // Сдвигаем точки влево
+        movePoints(index + 1, index, pointsCount - 1 - index);
+        pointsCount--;
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        checkOpen();
+        double x = point.getX();
+        // Позиция вставки: первая точка, не меньшая x - EPSILON; совпасть с x может только она
+        int insertIndex = lowerBound(0, x - EPSILON);
+        if (insertIndex < pointsCount && Math.abs(x(insertIndex) - x) < EPSILON) {
+            throw new InappropriateFunctionPointException(
+                "Точка с x=" + x + " уже существует");
+        }
+
+        ensureCapacity(pointsCount + 1);
+        // Сдвигаем точки вправо
+        movePoints(insertIndex, insertIndex + 1, pointsCount - insertIndex);
+        put(insertIndex, x, point.getY());
+        pointsCount++;
+    }
+}
@@ -0,0 +1,157 @@
+package functions;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+
+// Компактный формат сериализации точек табулированной функции:
+// байт версии, байт флагов (равномерность сетки и способ интерполяции), int количество точек,
+// затем сплошные блоки double -
+// все x (или только x0 и шаг, если сетка равномерная), затем все y.
+// Блоки пишутся одним write, а не отдельным writeDouble на каждое значение
+final class PackedPoints {
+    static final int FORMAT_VERSION = 1;
+    // x(i) в точности равно x0 + i * step, записываются только x0 и шаг
+    private static final int FLAG_UNIFORM = 1;
+    // Биты 1-2: порядковый номер способа интерполяции (0 - линейная)
+    private static final int MODE_SHIFT = 1;
+    private static final int MODE_MASK = 3 << MODE_SHIFT;
+    private static final int KNOWN_FLAGS = FLAG_UNIFORM | MODE_MASK;
+    // Количество значений в одном блоке записи
+    private static final int BLOCK_SIZE = 1024;
+
+    final double[] xValues;
+    final double[] yValues;
+    final int pointsCount;
+    // Шаг равномерной сетки; 0, если сетка неравномерная
+    final double gridStep;
+    final InterpolationMode interpolationMode;
+
+    private PackedPoints(double[] xValues, double[] yValues, int pointsCount, double gridStep,
+                         InterpolationMode interpolationMode) {
+        this.xValues = xValues;
+        this.yValues = yValues;
+        this.pointsCount = pointsCount;
+        this.gridStep = gridStep;
+        this.interpolationMode = interpolationMode;
+    }
+
+    // gridStep - известный шаг сетки или 0; равномерность проверяется точно
+    static void write(ObjectOutput out, double[] xValues, double[] yValues, int pointsCount,
+                      double gridStep) throws IOException {
+        write(out, xValues, yValues, pointsCount, gridStep, InterpolationMode.LINEAR);
+    }
+
+    static void write(ObjectOutput out, double[] xValues, double[] yValues, int pointsCount,
+                      double gridStep, InterpolationMode interpolationMode) throws IOException {
+        double step = uniformStep(xValues, pointsCount, gridStep);
+
+        out.writeByte(FORMAT_VERSION);
+        out.writeByte((step > 0 ? FLAG_UNIFORM : 0) | interpolationMode.ordinal() << MODE_SHIFT);
+        out.writeInt(pointsCount);
+        byte[] block = new byte[Math.min(pointsCount, BLOCK_SIZE) * Double.BYTES];
+        if (step > 0) {
+            out.writeDouble(xValues[0]);
+            out.writeDouble(step);
+        } else {
+            writeValues(out, xValues, pointsCount, block);
+        }
+        writeValues(out, yValues, pointsCount, block);
+    }
+
+    static PackedPoints read(ObjectInput in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new InvalidObjectException("Неподдерживаемая версия формата: " + version);
+        }
+        int flags = in.readUnsignedByte();
+        int mode = (flags & MODE_MASK) >>> MODE_SHIFT;
+        if ((flags & ~KNOWN_FLAGS) != 0 || mode >= InterpolationMode.values().length) {
+            throw new InvalidObjectException("Неизвестные флаги формата: " + flags);
+        }
+        int pointsCount = in.readInt();
+        if (pointsCount < 0) {
+            throw new InvalidObjectException("Некорректное количество точек: " + pointsCount);
+        }
+
+        double[] xValues = new double[pointsCount];
+        double[] yValues = new double[pointsCount];
+        byte[] block = new byte[Math.min(pointsCount, BLOCK_SIZE) * Double.BYTES];
+        double step = 0;
+        if ((flags & FLAG_UNIFORM) != 0) {
+            double leftX = in.readDouble();
+            step = in.readDouble();
+            if (!(step > 0)) {
+                throw new InvalidObjectException("Некорректный шаг сетки: " + step);
+            }
+            for (int i = 0; i < pointsCount; i++) {
+                xValues[i] = leftX + i * step;
+            }
+        } else {
+            readValues(in, xValues, pointsCount, block);
+        }
+        readValues(in, yValues, pointsCount, block);
+
+        // Проверка упорядоченности точек
+        for (int i = 1; i < pointsCount; i++) {
+            if (!(xValues[i] > xValues[i - 1])) {
+                throw new InvalidObjectException("Точки должны быть упорядочены по X");
+            }
+        }
+        return new PackedPoints(xValues, yValues, pointsCount, step, InterpolationMode.values()[mode]);
+    }
+
+    // Шаг, с которым x(i) == x(0) + i * step для всех точек, или 0
+    private static double uniformStep(double[] xValues, int pointsCount, double gridStep) {
+        if (pointsCount < 2) {
+            return 0;
+        }
+        double step = gridStep > 0
+                ? gridStep
+                : (xValues[pointsCount - 1] - xValues[0]) / (pointsCount - 1);
+        if (!(step > 0)) {
+            return 0;
+        }
+        double leftX = xValues[0];
+        for (int i = 1; i < pointsCount; i++) {
+            if (xValues[i] != leftX + i * step) {
+                return 0;
+            }
+        }
+        return step;
+    }
+
+    // Блок значений без заголовка; длина известна читающей стороне
+    static void writeValues(ObjectOutput out, double[] values, int length) throws IOException {
+        writeValues(out, values, length, new byte[Math.min(length, BLOCK_SIZE) * Double.BYTES]);
+    }
+
+    static void readValues(ObjectInput in, double[] values, int length) throws IOException {
+        readValues(in, values, length, new byte[Math.min(length, BLOCK_SIZE) * Double.BYTES]);
+    }
+
+    private static void writeValues(ObjectOutput out, double[] values, int length, byte[] block)
+            throws IOException {
+        DoubleBuffer view = ByteBuffer.wrap(block).asDoubleBuffer();
+        for (int from = 0; from < length; from += BLOCK_SIZE) {
+            int count = Math.min(BLOCK_SIZE, length - from);
+            view.clear();
+            view.put(values, from, count);
+            out.write(block, 0, count * Double.BYTES);
+        }
+    }
+
+    private static void readValues(ObjectInput in, double[] values, int length, byte[] block)
+            throws IOException {
+        DoubleBuffer view = ByteBuffer.wrap(block).asDoubleBuffer();
+        for (int from = 0; from < length; from += BLOCK_SIZE) {
+            int count = Math.min(BLOCK_SIZE, length - from);
+            in.readFully(block, 0, count * Double.BYTES);
+            view.clear();
+            view.get(values, from, count);
+        }
+    }
+}
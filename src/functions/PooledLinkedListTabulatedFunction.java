@@ -0,0 +1,525 @@
+package functions;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+// Двусвязный циклический список точек в массивах примитивов: узел - это индекс в массивах
+// xValues, yValues, prev и next (24 байта на точку вместо объектов FunctionNode и FunctionPoint).
+// Узел 0 - голова списка. Удалённые узлы собираются в список свободных (по ссылкам next)
+// и переиспользуются при вставке, поэтому циклы вставки и удаления не создают объектов.
+// Узел ищется проходом от ближайшего из концов или от последнего найденного узла, поэтому
+// класс рассчитан на последовательный доступ и изменения рядом с предыдущими; для
+// произвольного доступа к большим таблицам подходит LinkedListTabulatedFunction
+public class PooledLinkedListTabulatedFunction implements TabulatedFunction, Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final double EPSILON = 1e-10;
+    private static final int HEAD = 0;
+    private static final int NIL = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private transient double[] xValues;
+    private transient double[] yValues;
+    private transient int[] prev;
+    private transient int[] next;
+    private transient int size;
+    // Узлы [0, used) выделялись хотя бы раз; свободные из них связаны через next
+    private transient int used;
+    private transient int freeList;
+    // Последний узел, найденный по индексу, и его индекс
+    private transient int lastAccessedNode;
+    private transient int lastAccessedIndex;
+    // Последний узел, найденный по x; одно поле, поэтому его можно читать из нескольких потоков
+    private transient int lastFoundNode;
+    // Счётчик освобождений узлов: курсор по нему узнаёт, что его узел мог быть переиспользован
+    private transient int modCount;
+
+    // Конструкторы
+    public PooledLinkedListTabulatedFunction(FunctionPoint[] points) {
+        if (points.length < 2) {
+            throw new IllegalArgumentException("Требуется не менее 2 точек");
+        }
+
+        // Проверка упорядоченности точек
+        for (int i = 1; i < points.length; i++) {
+            if (points[i].getX() <= points[i-1].getX() + EPSILON) {
+                throw new IllegalArgumentException("Точки должны быть упорядочены по X");
+            }
+        }
+
+        init(points.length);
+        for (FunctionPoint point : points) {
+            append(point.getX(), point.getY());
+        }
+    }
+
+    public PooledLinkedListTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        this(leftX, rightX, new double[Math.max(pointsCount, 0)]);
+    }
+
+    public PooledLinkedListTabulatedFunction(double leftX, double rightX, double[] values) {
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        if (values.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+
+        init(values.length);
+        double step = (rightX - leftX) / (values.length - 1);
+        for (int i = 0; i < values.length; i++) {
+            append(leftX + i * step, values[i]);
+        }
+    }
+
+    // Копия точек другой табулированной функции
+    public PooledLinkedListTabulatedFunction(TabulatedFunction function) {
+        init(function.getPointsCount());
+        function.forEachPoint(this::append);
+    }
+
+    // Пустой список с головой и местом под capacity точек
+    private void init(int capacity) {
+        int length = Math.max(INITIAL_CAPACITY, capacity + 1);
+        xValues = new double[length];
+        yValues = new double[length];
+        prev = new int[length];
+        next = new int[length];
+        prev[HEAD] = HEAD;
+        next[HEAD] = HEAD;
+        size = 0;
+        used = 1;
+        freeList = NIL;
+        lastAccessedNode = NIL;
+        lastAccessedIndex = -1;
+        lastFoundNode = NIL;
+        modCount++;
+    }
+
+    // Вспомогательные методы для работы со списком
+
+    // Узел из списка свободных или новый узел в конце массивов
+    private int allocate() {
+        if (freeList != NIL) {
+            int node = freeList;
+            freeList = next[node];
+            return node;
+        }
+        if (used == xValues.length) {
+            int capacity = xValues.length * 2;
+            xValues = Arrays.copyOf(xValues, capacity);
+            yValues = Arrays.copyOf(yValues, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return used++;
+    }
+
+    // Вставка узла после узла before
+    private int insertAfter(int before, double x, double y) {
+        int node = allocate();
+        int after = next[before];
+        xValues[node] = x;
+        yValues[node] = y;
+        prev[node] = before;
+        next[node] = after;
+        next[before] = node;
+        prev[after] = node;
+        size++;
+        return node;
+    }
+
+    private void append(double x, double y) {
+        insertAfter(prev[HEAD], x, y);
+    }
+
+    // Исключение узла из списка и возврат его в список свободных
+    private void unlink(int node) {
+        next[prev[node]] = next[node];
+        prev[next[node]] = prev[node];
+        next[node] = freeList;
+        freeList = node;
+        size--;
+        modCount++;
+    }
+
+    private int getNodeByIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " вне границ [0, " + (size-1) + "]");
+        }
+
+        // Проход от ближайшего из известных узлов: головы (позиция -1 и size) или последнего найденного
+        int current = HEAD;
+        int position = -1;
+        if (size - index < index + 1) {
+            position = size;
+        }
+        if (lastAccessedNode != NIL && Math.abs(index - lastAccessedIndex) < Math.abs(index - position)) {
+            current = lastAccessedNode;
+            position = lastAccessedIndex;
+        }
+        for (; position < index; position++) {
+            current = next[current];
+        }
+        for (; position > index; position--) {
+            current = prev[current];
+        }
+
+        lastAccessedNode = current;
+        lastAccessedIndex = index;
+        return current;
+    }
+
+    // Последний узел с x-координатой меньше x - EPSILON (или голова)
+    private int findPredecessorByX(double x) {
+        int current = findPredecessorByX(lastFoundNode, x);
+        lastFoundNode = current;
+        return current;
+    }
+
+    // То же с началом поиска от узла from (NIL - от ближайшего к x конца списка)
+    private int findPredecessorByX(int from, double x) {
+        double bound = x - EPSILON;
+        int current = from;
+        if (current == NIL) {
+            // Начинаем с того конца, к которому x ближе
+            current = x - xValues[next[HEAD]] <= xValues[prev[HEAD]] - x ? HEAD : prev[HEAD];
+        }
+        if (current != HEAD && !(xValues[current] < bound)) {
+            // Узел не левее x: отступаем назад
+            do {
+                current = prev[current];
+            } while (current != HEAD && !(xValues[current] < bound));
+        } else {
+            while (next[current] != HEAD && xValues[next[current]] < bound) {
+                current = next[current];
+            }
+        }
+        return current;
+    }
+
+    // Сброс запомненных узлов после удаления нескольких узлов
+    private void forgetNodes() {
+        lastAccessedNode = NIL;
+        lastAccessedIndex = -1;
+        lastFoundNode = NIL;
+    }
+
+    // Методы интерфейса TabulatedFunction
+    public double getLeftDomainBorder() {
+        return xValues[next[HEAD]];
+    }
+
+    public double getRightDomainBorder() {
+        return xValues[prev[HEAD]];
+    }
+
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() - EPSILON || x > getRightDomainBorder() + EPSILON) {
+            return Double.NaN;
+        }
+
+        // Поиск узла, следующего за точкой с x-координатой, большей или равной x
+        if (!Double.isNaN(x)) {
+            return valueAfter(findPredecessorByX(x), x);
+        }
+
+        // Если x больше всех точек, возвращаем значение последней точки
+        return yValues[prev[HEAD]];
+    }
+
+    // Значение в x по последнему узлу prevNode с x-координатой меньше x - EPSILON (или голове)
+    private double valueAfter(int prevNode, double x) {
+        int current = next[prevNode];
+        if (current != HEAD) {
+            // Если x совпадает с текущей точкой или это первая точка
+            if (Math.abs(xValues[current] - x) < EPSILON || prevNode == HEAD) {
+                return yValues[current];
+            }
+
+            // Интерполяция между предыдущей и текущей точкой
+            return interpolate(prevNode, current, x);
+        }
+
+        // Если x больше всех точек, возвращаем значение последней точки
+        return yValues[prev[HEAD]];
+    }
+
+    // Курсор ходит от своего узла и не трогает lastFoundNode, поэтому курсоры разных потоков
+    // не сбивают друг друга. После освобождения узлов поиск начинается заново с конца списка
+    @Override
+    public TabulatedCursor cursor() {
+        return new TabulatedCursor() {
+            private int node = NIL;
+            private int expectedModCount = modCount;
+
+            @Override
+            public double getFunctionValue(double x) {
+                if (x < getLeftDomainBorder() - EPSILON || x > getRightDomainBorder() + EPSILON) {
+                    return Double.NaN;
+                }
+                if (Double.isNaN(x)) {
+                    return PooledLinkedListTabulatedFunction.this.getFunctionValue(x);
+                }
+
+                if (expectedModCount != modCount) {
+                    node = NIL;
+                    expectedModCount = modCount;
+                }
+                node = findPredecessorByX(node, x);
+                return valueAfter(node, x);
+            }
+        };
+    }
+
+    @Override
+    public void getFunctionValues(double[] arguments, int argumentsOffset, double[] values, int offset, int length) {
+        if (!TabulatedFunctions.isSorted(arguments, argumentsOffset, length)) {
+            TabulatedFunction.super.getFunctionValues(arguments, argumentsOffset, values, offset, length);
+            return;
+        }
+
+        // Отсортированные аргументы: один проход по списку без возврата к голове
+        double left = getLeftDomainBorder() - EPSILON;
+        double right = getRightDomainBorder() + EPSILON;
+        int first = next[HEAD];
+        int current = first;
+        for (int k = 0; k < length; k++) {
+            double x = arguments[argumentsOffset + k];
+            if (Double.isNaN(x)) {
+                values[offset + k] = getFunctionValue(x);
+                continue;
+            }
+            if (x < left || x > right) {
+                values[offset + k] = Double.NaN;
+                continue;
+            }
+            while (next[current] != HEAD && xValues[current] < x - EPSILON) {
+                current = next[current];
+            }
+
+            if (Math.abs(xValues[current] - x) < EPSILON || current == first || xValues[current] < x - EPSILON) {
+                values[offset + k] = yValues[current];
+            } else {
+                // Интерполяция между предыдущей и текущей точкой
+                values[offset + k] = interpolate(prev[current], current, x);
+            }
+        }
+    }
+
+    private double interpolate(int prevNode, int node, double x) {
+        double x1 = xValues[prevNode];
+        double y1 = yValues[prevNode];
+        double x2 = xValues[node];
+        double y2 = yValues[node];
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    public int getPointsCount() {
+        return size;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        int node = getNodeByIndex(index);
+        return new FunctionPoint(xValues[node], yValues[node]);
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws
+            FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        int node = getNodeByIndex(index);
+        checkNeighbours(index, node, point.getX(), "X-координата точки");
+        xValues[node] = point.getX();
+        yValues[node] = point.getY();
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        return xValues[getNodeByIndex(index)];
+    }
+
+    public void setPointX(int index, double x) throws
+            FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        int node = getNodeByIndex(index);
+        checkNeighbours(index, node, x, "X-координата");
+        xValues[node] = x;
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        return yValues[getNodeByIndex(index)];
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        yValues[getNodeByIndex(index)] = y;
+    }
+
+    // Проверка корректности новой x-координаты
+    private void checkNeighbours(int index, int node, double x, String subject) throws InappropriateFunctionPointException {
+        if (index > 0 && x <= xValues[prev[node]] + EPSILON) {
+            throw new InappropriateFunctionPointException(
+                subject + " (" + x + ") должна быть больше предыдущей");
+        }
+        if (index < size - 1 && x >= xValues[next[node]] - EPSILON) {
+            throw new InappropriateFunctionPointException(
+                subject + " (" + x + ") должна быть меньше следующей");
+        }
+    }
+
+    public void deletePoint(int index) throws
+            FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        int node = getNodeByIndex(index);
+        if (size < 3) {
+            throw new IllegalStateException("Нельзя удалить точку: функция должна содержать минимум 2 точки");
+        }
+        // Запомненные узлы переносятся на предыдущий узел, чтобы следующий поиск рядом
+        // не начинался с конца списка
+        int before = prev[node];
+        unlink(node);
+        lastAccessedNode = before == HEAD ? NIL : before;
+        lastAccessedIndex = index - 1;
+        if (lastFoundNode == node) {
+            lastFoundNode = before;
+        }
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        double x = point.getX();
+        int prevNode = findPredecessorByX(x);
+
+        // Проверяем, нет ли уже точки с такой x-координатой
+        for (int current = next[prevNode]; current != HEAD && xValues[current] < x + EPSILON; current = next[current]) {
+            if (Math.abs(xValues[current] - x) < EPSILON) {
+                throw new InappropriateFunctionPointException(
+                    "Точка с x=" + x + " уже существует");
+            }
+        }
+
+        insertAfter(prevNode, x, point.getY());
+        // Индекс запомненного узла сдвигается, если точка вставлена перед ним
+        if (lastAccessedNode != NIL && !(x > xValues[lastAccessedNode])) {
+            lastAccessedIndex++;
+        }
+    }
+
+    // Обход и копирование точек по ссылкам next
+    @Override
+    public void forEachPoint(DoubleBiConsumer action) {
+        for (int current = next[HEAD]; current != HEAD; current = next[current]) {
+            action.accept(xValues[current], yValues[current]);
+        }
+    }
+
+    @Override
+    public void copyXs(double[] destination) {
+        if (destination.length < size) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        int i = 0;
+        for (int current = next[HEAD]; current != HEAD; current = next[current]) {
+            destination[i++] = xValues[current];
+        }
+    }
+
+    @Override
+    public void copyYs(double[] destination) {
+        if (destination.length < size) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        int i = 0;
+        for (int current = next[HEAD]; current != HEAD; current = next[current]) {
+            destination[i++] = yValues[current];
+        }
+    }
+
+    // Пакетные операции: точки сливаются или отбираются в массивы за один проход, затем
+    // список строится заново. Узлы при этом укладываются в массивы по порядку, без пропусков
+    @Override
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        BulkPoints added = BulkPoints.sorted(xs, ys);
+        double[] currentX = new double[size];
+        double[] currentY = new double[size];
+        copyXs(currentX);
+        copyYs(currentY);
+        added.checkMerge(currentX, size);
+        if (added.count == 0) {
+            return;
+        }
+
+        double[] resultX = new double[size + added.count];
+        double[] resultY = new double[size + added.count];
+        added.merge(currentX, currentY, size, resultX, resultY);
+        replacePoints(resultX, resultY, resultX.length);
+    }
+
+    @Override
+    public void deleteRange(int from, int to) throws
+            FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        BulkPoints.checkRange(from, to, size);
+        if (from == to) {
+            return;
+        }
+
+        double[] currentX = new double[size];
+        double[] currentY = new double[size];
+        copyXs(currentX);
+        copyYs(currentY);
+        System.arraycopy(currentX, to, currentX, from, size - to);
+        System.arraycopy(currentY, to, currentY, from, size - to);
+        replacePoints(currentX, currentY, size - (to - from));
+    }
+
+    // Удаление без перестройки: узлы исключаются из списка по месту
+    @Override
+    public boolean removeIf(DoubleBiPredicate filter) throws IllegalStateException {
+        long[] removed = new long[(used + 63) >>> 6];
+        int removedCount = 0;
+        for (int current = next[HEAD]; current != HEAD; current = next[current]) {
+            if (filter.test(xValues[current], yValues[current])) {
+                removed[current >>> 6] |= 1L << current;
+                removedCount++;
+            }
+        }
+        BulkPoints.checkRemaining(size - removedCount, removedCount);
+        if (removedCount == 0) {
+            return false;
+        }
+
+        int current = next[HEAD];
+        while (current != HEAD) {
+            int following = next[current];
+            if ((removed[current >>> 6] & 1L << current) != 0) {
+                unlink(current);
+            }
+            current = following;
+        }
+        forgetNodes();
+        return true;
+    }
+
+    private void replacePoints(double[] xs, double[] ys, int count) {
+        init(count);
+        for (int i = 0; i < count; i++) {
+            append(xs[i], ys[i]);
+        }
+    }
+
+    // Сериализация: точки по порядку списка в формате PackedPoints
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        double[] currentX = new double[size];
+        double[] currentY = new double[size];
+        copyXs(currentX);
+        copyYs(currentY);
+        PackedPoints.write(out, currentX, currentY, size, 0);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        PackedPoints points = PackedPoints.read(in);
+        if (points.pointsCount < 2) {
+            throw new InvalidObjectException("Требуется не менее 2 точек, получено " + points.pointsCount);
+        }
+        replacePoints(points.xValues, points.yValues, points.pointsCount);
+    }
+}
@@ -0,0 +1,123 @@
+package functions;
+
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+
+// Ленивый обход значений функции в узлах равномерной сетки или в точках табулированной
+// функции. Значения на сетке вычисляются по мере обхода, точки читаются по индексу; ни то,
+// ни другое нигде не копируется. Обход делится пополам по диапазону индексов, поэтому потоки
+// на его основе распараллеливаются.
+// Как Spliterator.OfDouble выдаёт значения y, пары (x, y) выдаются через DoubleBiConsumer
+public final class SampleSpliterator implements Spliterator.OfDouble {
+    private static final int GRID_CHARACTERISTICS = ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+
+    // Источник - либо функция на сетке leftX + i * step, либо точки табулированной функции
+    private final Function function;
+    private final TabulatedFunction points;
+    private final double leftX;
+    private final double step;
+    private final int characteristics;
+    // Текущий индекс и граница (не включается) оставшегося диапазона
+    private int index;
+    private final int end;
+
+    private SampleSpliterator(Function function, TabulatedFunction points, double leftX, double step,
+                              int characteristics, int index, int end) {
+        this.function = function;
+        this.points = points;
+        this.leftX = leftX;
+        this.step = step;
+        this.characteristics = characteristics;
+        this.index = index;
+        this.end = end;
+    }
+
+    // Узлы сетки совпадают с узлами TabulatedFunctions.tabulate с теми же параметрами
+    static SampleSpliterator grid(Function function, double leftX, double step, int pointsCount) {
+        return new SampleSpliterator(function, null, leftX, step, GRID_CHARACTERISTICS, 0, pointsCount);
+    }
+
+    // У ConcurrentTabulatedFunction обход идёт по её неизменяемому снимку, у остальных функций -
+    // по самой функции, которую нельзя изменять до конца обхода. getPointX у списков сдвигает
+    // общий указатель на последний узел, и параллельные части обхода сбивали бы друг друга,
+    // поэтому обход списков не делится
+    static SampleSpliterator points(TabulatedFunction function) {
+        TabulatedFunction points = TabulatedFunctions.stableView(function);
+        int characteristics = ORDERED | SIZED | NONNULL;
+        if (!(points instanceof LinkedListTabulatedFunction || points instanceof PooledLinkedListTabulatedFunction)) {
+            characteristics |= SUBSIZED;
+        }
+        if (points != function) {
+            characteristics |= IMMUTABLE;
+        }
+        return new SampleSpliterator(null, points, 0, 0, characteristics, 0, points.getPointsCount());
+    }
+
+    private double x(int i) {
+        return points == null ? leftX + i * step : points.getPointX(i);
+    }
+
+    private double y(int i, double x) {
+        return points == null ? function.getFunctionValue(x) : points.getPointY(i);
+    }
+
+    @Override
+    public boolean tryAdvance(DoubleConsumer action) {
+        if (index >= end) {
+            return false;
+        }
+        int i = index++;
+        action.accept(y(i, x(i)));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(DoubleConsumer action) {
+        int i = index;
+        // Индекс сдвигается до обхода, как в Spliterators.ArraySpliterator
+        index = end;
+        for (; i < end; i++) {
+            action.accept(y(i, x(i)));
+        }
+    }
+
+    public boolean tryAdvance(DoubleBiConsumer action) {
+        if (index >= end) {
+            return false;
+        }
+        int i = index++;
+        double x = x(i);
+        action.accept(x, y(i, x));
+        return true;
+    }
+
+    public void forEachRemaining(DoubleBiConsumer action) {
+        int i = index;
+        index = end;
+        for (; i < end; i++) {
+            double x = x(i);
+            action.accept(x, y(i, x));
+        }
+    }
+
+    @Override
+    public SampleSpliterator trySplit() {
+        int middle = (index + end) >>> 1;
+        if ((characteristics & SUBSIZED) == 0 || middle <= index) {
+            return null;
+        }
+        SampleSpliterator prefix = new SampleSpliterator(function, points, leftX, step, characteristics, index, middle);
+        index = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+}
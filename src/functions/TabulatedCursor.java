@@ -0,0 +1,9 @@
+package functions;
+
+// Вычислитель значений табулированной функции, запоминающий найденный интервал.
+// Для возрастающих последовательностей аргументов поиск продолжается с прошлого места,
+// поэтому запрос стоит в среднем O(1); произвольные аргументы тоже вычисляются верно.
+// Состояние принадлежит только курсору: каждый поток получает свой курсор
+public interface TabulatedCursor {
+    double getFunctionValue(double x);
+}
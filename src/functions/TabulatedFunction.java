@@ -32,4 +32,84 @@ public interface TabulatedFunction extends Function {
         FunctionPointIndexOutOfBoundsException, IllegalStateException;
     
     void addPoint(FunctionPoint point) throws InappropriateFunctionPointException;
+
+    // Внутренний обход точек по возрастанию x без создания объектов FunctionPoint.
+    // Реализации обходят свои структуры напрямую, без проверки индекса на каждой точке
+    default void forEachPoint(DoubleBiConsumer action) {
+        int pointsCount = getPointsCount();
+        for (int i = 0; i < pointsCount; i++) {
+            action.accept(getPointX(i), getPointY(i));
+        }
+    }
+
+    // Копирование координат точек в начало массива, вмещающего getPointsCount() значений
+    default void copyXs(double[] destination) {
+        checkDestination(destination);
+        int pointsCount = getPointsCount();
+        for (int i = 0; i < pointsCount; i++) {
+            destination[i] = getPointX(i);
+        }
+    }
+
+    default void copyYs(double[] destination) {
+        checkDestination(destination);
+        int pointsCount = getPointsCount();
+        for (int i = 0; i < pointsCount; i++) {
+            destination[i] = getPointY(i);
+        }
+    }
+
+    // Пакетное добавление точек в любом порядке. Совпадения x-координат проверяются до
+    // изменения функции. Реализация по умолчанию добавляет точки по одной
+    default void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        BulkPoints added = BulkPoints.sorted(xs, ys);
+        double[] xValues = new double[getPointsCount()];
+        copyXs(xValues);
+        added.checkMerge(xValues, xValues.length);
+        for (int i = 0; i < added.count; i++) {
+            addPoint(new FunctionPoint(added.xValues[i], added.yValues[i]));
+        }
+    }
+
+    // Удаление точек с индексами [from, to)
+    default void deleteRange(int from, int to) throws
+        FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        BulkPoints.checkRange(from, to, getPointsCount());
+        for (int i = to - 1; i >= from; i--) {
+            deletePoint(i);
+        }
+    }
+
+    // Удаление точек, удовлетворяющих условию; условие вычисляется для каждой точки один раз.
+    // Если останется меньше 2 точек, функция не изменяется
+    default boolean removeIf(DoubleBiPredicate filter) throws IllegalStateException {
+        int pointsCount = getPointsCount();
+        boolean[] removed = new boolean[pointsCount];
+        int removedCount = 0;
+        for (int i = 0; i < pointsCount; i++) {
+            if (filter.test(getPointX(i), getPointY(i))) {
+                removed[i] = true;
+                removedCount++;
+            }
+        }
+        BulkPoints.checkRemaining(pointsCount - removedCount, removedCount);
+        for (int i = pointsCount - 1; i >= 0; i--) {
+            if (removed[i]) {
+                deletePoint(i);
+            }
+        }
+        return removedCount > 0;
+    }
+
+    // Курсор для последовательных запросов. По умолчанию - сам getFunctionValue: подходит
+    // реализациям, которые находят интервал без перебора точек
+    default TabulatedCursor cursor() {
+        return this::getFunctionValue;
+    }
+
+    private void checkDestination(double[] destination) {
+        if (destination.length < getPointsCount()) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+    }
 }
@@ -1,6 +1,9 @@
 package functions;
 
-import java.util.StringTokenizer;
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 import java.io.*;
 
 public class TabulatedFunctions {
@@ -9,7 +12,46 @@ public class TabulatedFunctions {
         throw new AssertionError("Не удается создать экземпляр служебного класса");
     }
 
+    // Размер порции точек, вычисляемой одной задачей при параллельном табулировании
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 12;
+
     public static TabulatedFunction tabulate(Function function, double leftX, double rightX, int pointsCount) {
+        return tabulate(function, leftX, rightX, pointsCount, Integer.MAX_VALUE);
+    }
+
+    // Табулирование с параллельным вычислением значений, если точек не меньше parallelThreshold.
+    // Функция должна допускать одновременные вызовы из нескольких потоков.
+    // Результат совпадает с последовательным табулированием
+    public static TabulatedFunction tabulate(Function function, double leftX, double rightX, int pointsCount,
+                                             int parallelThreshold) {
+        checkGrid(function, leftX, rightX, pointsCount);
+        TabulationEvent event = new TabulationEvent();
+        event.begin();
+
+        // Значения записываются прямо в массив будущей UniformTabulatedFunction;
+        // координаты x вычисляются порциями и не хранятся
+        double[] yValues = new double[pointsCount];
+        double step = (rightX - leftX) / (pointsCount - 1);
+
+        if (pointsCount < parallelThreshold) {
+            double[] xValues = new double[Math.min(pointsCount, PARALLEL_CHUNK_SIZE)];
+            for (int from = 0; from < pointsCount; from += PARALLEL_CHUNK_SIZE) {
+                tabulateRange(function, leftX, step, xValues, yValues, from, Math.min(from + PARALLEL_CHUNK_SIZE, pointsCount));
+            }
+        } else {
+            int chunks = (pointsCount + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int from = chunk * PARALLEL_CHUNK_SIZE;
+                int to = Math.min(from + PARALLEL_CHUNK_SIZE, pointsCount);
+                tabulateRange(function, leftX, step, new double[to - from], yValues, from, to);
+            });
+        }
+
+        commit(event, function, leftX, rightX, pointsCount, false);
+        return new UniformTabulatedFunction(leftX, step, yValues, pointsCount);
+    }
+
+    private static void checkGrid(Function function, double leftX, double rightX, int pointsCount) {
         if (leftX < function.getLeftDomainBorder() || rightX > function.getRightDomainBorder()) {
             throw new IllegalArgumentException("Выход за границы определения функции");
         }
@@ -19,38 +61,203 @@ public class TabulatedFunctions {
         if (pointsCount < 2) {
             throw new IllegalArgumentException("Количество точек должно быть не меньше 2");
         }
+    }
 
-        // Создаем табулированную функцию (используем ArrayTabulatedFunction по умолчанию)
-        TabulatedFunction tabulatedFunc = new ArrayTabulatedFunction(leftX, rightX, pointsCount);
+    // Ленивый обход значений функции в тех же узлах, что и у tabulate, без построения таблицы.
+    // Пары (x, y) выдаются методами SampleSpliterator с параметром DoubleBiConsumer
+    public static SampleSpliterator sampleSpliterator(Function function, double leftX, double rightX, int pointsCount) {
+        checkGrid(function, leftX, rightX, pointsCount);
+        return SampleSpliterator.grid(function, leftX, (rightX - leftX) / (pointsCount - 1), pointsCount);
+    }
 
-        // Заполняем значения функции
-        double step = (rightX - leftX) / (pointsCount - 1);
-        for (int i = 0; i < pointsCount; i++) {
-            double x = leftX + i * step;
-            double y = function.getFunctionValue(x);
-            tabulatedFunc.setPointY(i, y);
+    // Поток значений функции в узлах сетки; для параллельной обработки достаточно вызвать parallel()
+    public static DoubleStream sample(Function function, double leftX, double rightX, int pointsCount) {
+        return StreamSupport.doubleStream(sampleSpliterator(function, leftX, rightX, pointsCount), false);
+    }
+
+    // Обход точек табулированной функции без копирования. Функцию нельзя изменять до конца
+    // обхода; ConcurrentTabulatedFunction можно - обход идёт по снимку, взятому при вызове
+    public static SampleSpliterator pointsSpliterator(TabulatedFunction function) {
+        return SampleSpliterator.points(function);
+    }
+
+    public static DoubleStream pointValues(TabulatedFunction function) {
+        return StreamSupport.doubleStream(pointsSpliterator(function), false);
+    }
+
+    // Заполнение значений в узлах сетки с индексами [from, to); xValues - буфер порции
+    private static void tabulateRange(Function function, double leftX, double step,
+                                      double[] xValues, double[] yValues, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xValues[i - from] = leftX + i * step;
+        }
+        function.getFunctionValues(xValues, 0, yValues, from, to - from);
+    }
+
+    // Адаптивное табулирование: начальная равномерная сетка и наибольшая глубина деления интервала.
+    // Вместе с проверкой в четвертях начальная сетка задаёт 4 * ADAPTIVE_INITIAL_INTERVALS точек,
+    // по которым видны колебания функции; более частые колебания могут остаться незамеченными
+    private static final int ADAPTIVE_INITIAL_INTERVALS = 64;
+    private static final int ADAPTIVE_MAX_DEPTH = 40;
+    private static final int ADAPTIVE_DEFAULT_MAX_POINTS = 1 << 20;
+
+    public static TabulatedFunction tabulateAdaptive(Function function, double leftX, double rightX, double tolerance) {
+        return tabulateAdaptive(function, leftX, rightX, tolerance, ADAPTIVE_DEFAULT_MAX_POINTS);
+    }
+
+    // Табулирование с погрешностью линейной интерполяции не больше tolerance: интервал делится
+    // пополам, пока значение функции в его середине или в одной из четвертей отличается от
+    // интерполированного сильнее допуска. Проверка по трём внутренним точкам не даёт принять
+    // интервал, на концах и в середине которого периодическая функция случайно совпадает
+    // с прямой. Точки сгущаются только там, где велика кривизна
+    public static TabulatedFunction tabulateAdaptive(Function function, double leftX, double rightX,
+                                                     double tolerance, int maxPointsCount) {
+        if (leftX < function.getLeftDomainBorder() || rightX > function.getRightDomainBorder()) {
+            throw new IllegalArgumentException("Выход за границы определения функции");
+        }
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("Допуск должен быть положительным");
+        }
+        if (maxPointsCount < ADAPTIVE_INITIAL_INTERVALS + 1) {
+            throw new IllegalArgumentException("Количество точек должно быть не меньше " + (ADAPTIVE_INITIAL_INTERVALS + 1));
+        }
+
+        TabulationEvent event = new TabulationEvent();
+        event.begin();
+
+        double[] xValues = new double[4 * ADAPTIVE_INITIAL_INTERVALS];
+        double[] yValues = new double[xValues.length];
+        xValues[0] = leftX;
+        yValues[0] = function.getFunctionValue(leftX);
+        int pointsCount = 1;
+
+        // Стек интервалов (правая граница, значение в ней, значение в середине, глубина); левая
+        // граница - последняя добавленная точка, поэтому точки выходят упорядоченными. Значение
+        // в середине половины уже вычислено как значение в четверти делимого интервала
+        double[] stackX = new double[ADAPTIVE_MAX_DEPTH + 1];
+        double[] stackY = new double[ADAPTIVE_MAX_DEPTH + 1];
+        double[] stackMiddleY = new double[ADAPTIVE_MAX_DEPTH + 1];
+        int[] stackDepth = new int[ADAPTIVE_MAX_DEPTH + 1];
+
+        double step = (rightX - leftX) / ADAPTIVE_INITIAL_INTERVALS;
+        for (int interval = 1; interval <= ADAPTIVE_INITIAL_INTERVALS; interval++) {
+            double intervalRight = interval == ADAPTIVE_INITIAL_INTERVALS ? rightX : leftX + interval * step;
+            int top = 0;
+            stackX[0] = intervalRight;
+            stackY[0] = function.getFunctionValue(intervalRight);
+            double intervalLeft = xValues[pointsCount - 1];
+            stackMiddleY[0] = function.getFunctionValue(intervalLeft + (intervalRight - intervalLeft) / 2);
+            stackDepth[0] = 0;
+
+            while (top >= 0) {
+                double a = xValues[pointsCount - 1];
+                double fa = yValues[pointsCount - 1];
+                double b = stackX[top];
+                double fb = stackY[top];
+                double fm = stackMiddleY[top];
+                int depth = stackDepth[top];
+
+                double middle = a + (b - a) / 2;
+                boolean accepted = depth >= ADAPTIVE_MAX_DEPTH || middle <= a || middle >= b;
+                double leftQuarter = a + (middle - a) / 2;
+                double rightQuarter = middle + (b - middle) / 2;
+                double fl = 0;
+                double fr = 0;
+                if (!accepted) {
+                    fl = function.getFunctionValue(leftQuarter);
+                    fr = function.getFunctionValue(rightQuarter);
+                    double error = Math.max(Math.abs(fm - (fa + fb) / 2),
+                            Math.max(Math.abs(fl - (3 * fa + fb) / 4), Math.abs(fr - (fa + 3 * fb) / 4)));
+                    // NaN во всех пяти точках дроблением не исправить
+                    accepted = error <= tolerance || Double.isNaN(fa) && Double.isNaN(fb) && Double.isNaN(fm)
+                            && Double.isNaN(fl) && Double.isNaN(fr);
+                }
+
+                if (accepted) {
+                    if (pointsCount == maxPointsCount) {
+                        throw new IllegalStateException("Для точности " + tolerance + " требуется больше " + maxPointsCount + " точек");
+                    }
+                    if (pointsCount == xValues.length) {
+                        xValues = Arrays.copyOf(xValues, xValues.length * 2);
+                        yValues = Arrays.copyOf(yValues, yValues.length * 2);
+                    }
+                    xValues[pointsCount] = b;
+                    yValues[pointsCount] = fb;
+                    pointsCount++;
+                    top--;
+                } else {
+                    // Правая половина остаётся в стеке, левая обрабатывается следующей
+                    stackMiddleY[top] = fr;
+                    stackDepth[top] = depth + 1;
+                    top++;
+                    stackX[top] = middle;
+                    stackY[top] = fm;
+                    stackMiddleY[top] = fl;
+                    stackDepth[top] = depth + 1;
+                }
+            }
         }
 
-        return tabulatedFunc;
+        commit(event, function, leftX, rightX, pointsCount, true);
+        return new ArrayTabulatedFunction(xValues, yValues, pointsCount, 0);
+    }
+
+    // События JFR заполняются, только если запись событий включена
+    private static void commit(TabulationEvent event, Function function, double leftX, double rightX,
+                               int pointsCount, boolean adaptive) {
+        if (event.shouldCommit()) {
+            event.function = function.getClass().getName();
+            event.leftX = leftX;
+            event.rightX = rightX;
+            event.pointsCount = pointsCount;
+            event.adaptive = adaptive;
+            event.commit();
+        }
+    }
+
+    private static void commit(TabulatedIOEvent event, String operation, int pointsCount) {
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.pointsCount = pointsCount;
+            event.commit();
+        }
     }
 
     public static void outputTabulatedFunction(TabulatedFunction function, OutputStream out) throws IOException {
+        TabulatedIOEvent event = new TabulatedIOEvent();
+        event.begin();
         DataOutputStream dataOut = new DataOutputStream(out);
+        // Количество и координаты берутся из одного набора точек
+        TabulatedFunction points = stableView(function);
 
         // Записываем количество точек
-        dataOut.writeInt(function.getPointsCount());
+        dataOut.writeInt(points.getPointsCount());
 
-        // Записываем координаты точек
-        for (int i = 0; i < function.getPointsCount(); i++) {
-            dataOut.writeDouble(function.getPointX(i));
-            dataOut.writeDouble(function.getPointY(i));
+        // Записываем координаты точек; исключение ввода-вывода передаётся из обхода обёрнутым
+        try {
+            points.forEachPoint((x, y) -> {
+                try {
+                    dataOut.writeDouble(x);
+                    dataOut.writeDouble(y);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
 
         // Не закрываем поток! Пусть это делает вызывающий код
         dataOut.flush();
+        commit(event, "output", points.getPointsCount());
     }
 
     public static TabulatedFunction inputTabulatedFunction(InputStream in) throws IOException {
+        TabulatedIOEvent event = new TabulatedIOEvent();
+        event.begin();
         DataInputStream dataIn = new DataInputStream(in);
 
         // Читаем количество точек
@@ -65,50 +272,63 @@ public class TabulatedFunctions {
         }
 
         // Создаем табулированную функцию (используем ArrayTabulatedFunction по умолчанию)
-        return new ArrayTabulatedFunction(points);
+        TabulatedFunction function = new ArrayTabulatedFunction(points);
+        commit(event, "input", pointsCount);
+        return function;
     }
 
     public static void writeTabulatedFunction(TabulatedFunction function, Writer out) throws IOException {
-        PrintWriter writer = new PrintWriter(out);
-
-        // Записываем количество точек
-        writer.print(function.getPointsCount());
-        writer.print(' ');
-
-        // Записываем координаты точек
-        for (int i = 0; i < function.getPointsCount(); i++) {
-            writer.print(function.getPointX(i));
-            writer.print(' ');
-            writer.print(function.getPointY(i));
-            if (i < function.getPointsCount() - 1) {
-                writer.print(' ');
-            }
-        }
-
-        // Не закрываем поток! Пусть это делает вызывающий код
-        writer.flush();
+        TabulatedIOEvent event = new TabulatedIOEvent();
+        event.begin();
+        TabulatedFunction points = stableView(function);
+        TabulatedTextCodec.write(points, out);
+        commit(event, "write", points.getPointsCount());
     }
 
     public static TabulatedFunction readTabulatedFunction(Reader in) throws IOException {
-        StreamTokenizer tokenizer = new StreamTokenizer(in);
-
-        // Читаем количество точек
-        tokenizer.nextToken();
-        int pointsCount = (int) tokenizer.nval;
-
-        // Читаем точки
-        FunctionPoint[] points = new FunctionPoint[pointsCount];
-        for (int i = 0; i < pointsCount; i++) {
-            tokenizer.nextToken();
-            double x = tokenizer.nval;
+        TabulatedIOEvent event = new TabulatedIOEvent();
+        event.begin();
+        // Создаем табулированную функцию (используем ArrayTabulatedFunction по умолчанию)
+        TabulatedFunction function = TabulatedTextCodec.read(in);
+        commit(event, "read", function.getPointsCount());
+        return function;
+    }
 
-            tokenizer.nextToken();
-            double y = tokenizer.nval;
+    // Функция, точки которой не меняются между отдельными вызовами: у ConcurrentTabulatedFunction -
+    // её текущий неизменяемый снимок (без копирования), у остальных - сама функция
+    static TabulatedFunction stableView(TabulatedFunction function) {
+        if (function instanceof ConcurrentTabulatedFunction) {
+            return ((ConcurrentTabulatedFunction) function).currentSnapshot();
+        }
+        return function;
+    }
 
-            points[i] = new FunctionPoint(x, y);
+    // Табулированная функция поверх готовых массивов координат (без копирования)
+    static ArrayTabulatedFunction fromArrays(double[] xValues, double[] yValues) {
+        if (xValues.length < 2) {
+            throw new IllegalArgumentException("Требуется не менее 2 точек");
         }
+        // Проверка упорядоченности точек
+        for (int i = 1; i < xValues.length; i++) {
+            if (xValues[i] <= xValues[i-1]) {
+                throw new IllegalArgumentException("Точки должны быть упорядочены по X");
+            }
+        }
+        return new ArrayTabulatedFunction(xValues, yValues, xValues.length, 0);
+    }
 
-        // Создаем табулированную функцию (используем ArrayTabulatedFunction по умолчанию)
-        return new ArrayTabulatedFunction(points);
+    // Проверка упорядоченности аргументов по возрастанию (NaN не учитываются)
+    static boolean isSorted(double[] arguments, int offset, int length) {
+        double previous = Double.NEGATIVE_INFINITY;
+        for (int k = 0; k < length; k++) {
+            double x = arguments[offset + k];
+            if (x < previous) {
+                return false;
+            }
+            if (x > previous) {
+                previous = x;
+            }
+        }
+        return true;
     }
 }
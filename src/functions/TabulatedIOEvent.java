@@ -0,0 +1,18 @@
+package functions;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Событие JFR записи или чтения табулированной функции в TabulatedFunctions
+@Name("functions.TabulatedIO")
+@Label("Ввод-вывод табулированной функции")
+@Category("Functions")
+class TabulatedIOEvent extends Event {
+    @Label("Операция")
+    String operation;
+
+    @Label("Количество точек")
+    int pointsCount;
+}
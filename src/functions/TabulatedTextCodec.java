@@ -0,0 +1,294 @@
+package functions;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+// Потоковый текстовый формат табулированных функций: количество точек, затем пары x y
+// через пробел. Числа разбираются и форматируются вручную поверх переиспользуемых буферов;
+// запись и чтение восстанавливают значения double точно
+final class TabulatedTextCodec {
+    private static final int BUFFER_SIZE = 8192;
+    // Запас в буфере записи под одно число (с учётом формата Double.toString)
+    private static final int MAX_NUMBER_LENGTH = 32;
+    // Точные степени десяти, представимые в double
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long[] LONG_POWERS_OF_TEN = {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+        1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+        100000000000000L, 1000000000000000L, 10000000000000000L, 100000000000000000L
+    };
+    // 2^53: до этой границы целые числа представимы в double точно
+    private static final double EXACT_INTEGER_LIMIT = 9007199254740992.0;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private final StringBuilder fallback = new StringBuilder(MAX_NUMBER_LENGTH);
+
+    private TabulatedTextCodec() {
+    }
+
+    // Количество точек и обход должны видеть один набор точек: для ConcurrentTabulatedFunction
+    // передаётся её снимок (TabulatedFunctions.stableView)
+    static void write(TabulatedFunction function, Writer out) throws IOException {
+        new TabulatedTextCodec().writeFunction(function, out);
+    }
+
+    static TabulatedFunction read(Reader in) throws IOException {
+        return new TabulatedTextCodec().readFunction(in);
+    }
+
+    // Запись
+
+    private void writeFunction(TabulatedFunction function, Writer out) throws IOException {
+        int pointsCount = function.getPointsCount();
+        appendLong(pointsCount);
+
+        // Исключение ввода-вывода передаётся из обхода обёрнутым
+        try {
+            function.forEachPoint((x, y) -> {
+                try {
+                    ensureCapacity(out, 2 * MAX_NUMBER_LENGTH + 2);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                buffer[position++] = ' ';
+                appendDouble(x);
+                buffer[position++] = ' ';
+                appendDouble(y);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        // Не закрываем поток! Пусть это делает вызывающий код
+        out.write(buffer, 0, position);
+        position = 0;
+        out.flush();
+    }
+
+    private void ensureCapacity(Writer out, int length) throws IOException {
+        if (position + length > buffer.length) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void appendLong(long value) {
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int start = position;
+        do {
+            buffer[position++] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        // Цифры записаны в обратном порядке
+        for (int i = start, j = position - 1; i < j; i++, j--) {
+            char c = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = c;
+        }
+    }
+
+    // Кратчайшая десятичная запись m / 10^k, восстанавливающая то же значение double;
+    // вне диапазона быстрого пути используется формат Double.toString
+    private void appendDouble(double value) {
+        double magnitude = Math.abs(value);
+        if (magnitude >= 1e-3 && magnitude < 1e7) {
+            for (int k = 0; k < LONG_POWERS_OF_TEN.length; k++) {
+                double scaled = magnitude * POWERS_OF_TEN[k];
+                if (scaled >= EXACT_INTEGER_LIMIT) {
+                    break;
+                }
+                double mantissa = Math.rint(scaled);
+                // Деление точных m и 10^k округляется так же, как разбор строки "m * 10^-k"
+                if (mantissa / POWERS_OF_TEN[k] == magnitude) {
+                    if (value < 0) {
+                        buffer[position++] = '-';
+                    }
+                    appendDecimal((long) mantissa, k);
+                    return;
+                }
+            }
+        } else if (value == 0) {
+            if (Double.doubleToRawLongBits(value) != 0) {
+                buffer[position++] = '-';
+            }
+            buffer[position++] = '0';
+            buffer[position++] = '.';
+            buffer[position++] = '0';
+            return;
+        }
+
+        // StringBuilder.append(double) не создаёт промежуточную строку
+        fallback.setLength(0);
+        fallback.append(value);
+        fallback.getChars(0, fallback.length(), buffer, position);
+        position += fallback.length();
+    }
+
+    private void appendDecimal(long mantissa, int fractionDigits) {
+        long power = LONG_POWERS_OF_TEN[fractionDigits];
+        appendLong(mantissa / power);
+        buffer[position++] = '.';
+        if (fractionDigits == 0) {
+            buffer[position++] = '0';
+            return;
+        }
+        long fraction = mantissa % power;
+        for (int i = fractionDigits - 1; i >= 0; i--) {
+            buffer[position++] = (char) ('0' + fraction / LONG_POWERS_OF_TEN[i] % 10);
+        }
+    }
+
+    // Чтение
+
+    private TabulatedFunction readFunction(Reader in) throws IOException {
+        int pointsCount = (int) readDouble(in);
+
+        double[] xValues = new double[pointsCount];
+        double[] yValues = new double[pointsCount];
+        for (int i = 0; i < pointsCount; i++) {
+            xValues[i] = readDouble(in);
+            yValues[i] = readDouble(in);
+        }
+
+        return TabulatedFunctions.fromArrays(xValues, yValues);
+    }
+
+    private boolean fill(Reader in) throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    // Лексема собирается в начало буфера, если она не целиком в нём
+    private double readDouble(Reader in) throws IOException {
+        // Пропуск разделителей
+        do {
+            while (position < limit && buffer[position] <= ' ') {
+                position++;
+            }
+        } while (position == limit && fill(in));
+        if (position == limit) {
+            throw new EOFException("Неожиданный конец данных");
+        }
+
+        int start = position;
+        while (true) {
+            while (position < limit && buffer[position] > ' ') {
+                position++;
+            }
+            if (position < limit) {
+                break;
+            }
+            // Лексема продолжается за концом буфера: переносим её в начало и дочитываем
+            int length = limit - start;
+            if (length == buffer.length) {
+                throw new IOException("Слишком длинное число: " + new String(buffer, start, 64) + "...");
+            }
+            System.arraycopy(buffer, start, buffer, 0, length);
+            start = 0;
+            position = length;
+            int read = in.read(buffer, length, buffer.length - length);
+            if (read <= 0) {
+                limit = length;
+                break;
+            }
+            limit = length + read;
+        }
+        return parseDouble(buffer, start, position);
+    }
+
+    static double parseDouble(char[] chars, int from, int to) throws IOException {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+
+        // Мантисса накапливается, пока помещается в long без потери точности
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean overflow = false;
+        while (i < to && chars[i] >= '0' && chars[i] <= '9') {
+            if (mantissa < Long.MAX_VALUE / 10 - 9) {
+                mantissa = mantissa * 10 + (chars[i] - '0');
+            } else {
+                overflow = true;
+                exponent++;
+            }
+            digits++;
+            i++;
+        }
+        if (i < to && chars[i] == '.') {
+            i++;
+            while (i < to && chars[i] >= '0' && chars[i] <= '9') {
+                if (mantissa < Long.MAX_VALUE / 10 - 9) {
+                    mantissa = mantissa * 10 + (chars[i] - '0');
+                    exponent--;
+                } else {
+                    overflow = true;
+                }
+                digits++;
+                i++;
+            }
+        }
+        if (digits > 0 && i < to && (chars[i] == 'e' || chars[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && (chars[i] == '-' || chars[i] == '+')) {
+                negativeExponent = chars[i] == '-';
+                i++;
+            }
+            int exponentDigits = 0;
+            int explicitExponent = 0;
+            while (i < to && chars[i] >= '0' && chars[i] <= '9') {
+                if (explicitExponent < 100000) {
+                    explicitExponent = explicitExponent * 10 + (chars[i] - '0');
+                }
+                exponentDigits++;
+                i++;
+            }
+            if (exponentDigits == 0) {
+                digits = 0;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (digits > 0 && i == to && !overflow) {
+            if (mantissa == 0) {
+                return negative ? -0.0 : 0.0;
+            }
+            // Быстрый путь: обе величины точны, одно умножение или деление округляется корректно
+            if (mantissa < EXACT_INTEGER_LIMIT && Math.abs(exponent) < POWERS_OF_TEN.length) {
+                double value = exponent >= 0
+                        ? mantissa * POWERS_OF_TEN[exponent]
+                        : mantissa / POWERS_OF_TEN[-exponent];
+                return negative ? -value : value;
+            }
+        }
+
+        // Редкие случаи (длинные мантиссы, большие порядки, NaN, Infinity) разбирает JDK
+        String token = new String(chars, from, to - from);
+        try {
+            return Double.parseDouble(token);
+        } catch (NumberFormatException e) {
+            throw new IOException("Некорректное число: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package functions;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Событие JFR табулирования функции в TabulatedFunctions
+@Name("functions.Tabulation")
+@Label("Табулирование функции")
+@Category("Functions")
+class TabulationEvent extends Event {
+    @Label("Функция")
+    String function;
+
+    @Label("Левая граница")
+    double leftX;
+
+    @Label("Правая граница")
+    double rightX;
+
+    @Label("Количество точек")
+    int pointsCount;
+
+    @Label("Адаптивное")
+    boolean adaptive;
+}
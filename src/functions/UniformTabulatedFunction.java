@@ -0,0 +1,469 @@
+package functions;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+// Табулированная функция на равномерной сетке: хранятся только начало отсчёта, шаг и значения y.
+// x(i) = originX + (firstIndex + i) * step; интервал находится за O(1) умножением на обратный шаг.
+// Изменение y, удаление крайних точек и добавление точки ровно на следующий узел сетки
+// сохраняют равномерность; остальные изменения переводят функцию в ArrayTabulatedFunction
+public class UniformTabulatedFunction implements TabulatedFunction, Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final double EPSILON = 1e-10;
+
+    // Поля сериализуются вручную (см. writeObject), без описаний полей и без запаса места
+    private transient double originX;
+    private transient double step;
+    private transient double inverseStep;
+    // Номер узла сетки, соответствующего нулевой точке; меняется при удалении
+    // и добавлении точек слева, чтобы координаты остальных точек не пересчитывались
+    private transient int firstIndex;
+    private transient int pointsCount;
+    private transient double[] yValues;
+    // Представление после нарушения равномерности; если не null, все вызовы передаются ему
+    private transient ArrayTabulatedFunction general;
+
+    // Конструкторы
+    public UniformTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        init(leftX, (rightX - leftX) / (pointsCount - 1), new double[pointsCount + 2], pointsCount);
+    }
+
+    public UniformTabulatedFunction(double leftX, double rightX, double[] values) {
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        if (values.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        double[] yValues = new double[values.length + 2];
+        System.arraycopy(values, 0, yValues, 0, values.length);
+        init(leftX, (rightX - leftX) / (values.length - 1), yValues, values.length);
+    }
+
+    // Конструктор без копирования: значения уже заполнены вызывающим кодом пакета
+    UniformTabulatedFunction(double leftX, double step, double[] yValues, int pointsCount) {
+        init(leftX, step, yValues, pointsCount);
+    }
+
+    private void init(double leftX, double step, double[] yValues, int pointsCount) {
+        this.originX = leftX;
+        this.step = step;
+        this.inverseStep = 1 / step;
+        this.firstIndex = 0;
+        this.yValues = yValues;
+        this.pointsCount = pointsCount;
+    }
+
+    // Координата i-й точки (без проверки индекса); совпадает с leftX + i * step
+    // в конструкторах ArrayTabulatedFunction
+    private double x(int index) {
+        return originX + (firstIndex + index) * step;
+    }
+
+    // Методы для работы с функцией
+    public double getLeftDomainBorder() {
+        if (general != null) {
+            return general.getLeftDomainBorder();
+        }
+        return x(0);
+    }
+
+    public double getRightDomainBorder() {
+        if (general != null) {
+            return general.getRightDomainBorder();
+        }
+        return x(pointsCount - 1);
+    }
+
+    public double getFunctionValue(double x) {
+        if (general != null) {
+            return general.getFunctionValue(x);
+        }
+        if (x < getLeftDomainBorder() - EPSILON || x > getRightDomainBorder() + EPSILON) {
+            return Double.NaN;
+        }
+
+        // Индекс вычисляется арифметически и уточняется соседями:
+        // наименьший i, для которого x(i + 1) >= x - EPSILON
+        int last = pointsCount - 2;
+        int i = (int) ((x - x(0)) * inverseStep);
+        if (i < 0) i = 0;
+        if (i > last) i = last;
+        while (i > 0 && x(i) >= x - EPSILON) {
+            i--;
+        }
+        while (i < last && x(i + 1) < x - EPSILON) {
+            i++;
+        }
+
+        // Если x совпадает с одной из точек (в пределах epsilon)
+        double x1 = x(i);
+        double x2 = x(i + 1);
+        if (Math.abs(x1 - x) < EPSILON) {
+            return yValues[i];
+        }
+        if (Math.abs(x2 - x) < EPSILON) {
+            return yValues[i + 1];
+        }
+
+        // Линейная интерполяция
+        double y1 = yValues[i];
+        double y2 = yValues[i + 1];
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    // Шаг сетки; 0, если сетка перестала быть равномерной
+    public double getStep() {
+        return general != null ? 0 : step;
+    }
+
+    // Методы для работы с точками
+    public int getPointsCount() {
+        if (general != null) {
+            return general.getPointsCount();
+        }
+        return pointsCount;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (general != null) {
+            return general.getPoint(index);
+        }
+        checkIndex(index);
+        return new FunctionPoint(x(index), yValues[index]);
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (general != null) {
+            return general.getPointX(index);
+        }
+        checkIndex(index);
+        return x(index);
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (general != null) {
+            return general.getPointY(index);
+        }
+        checkIndex(index);
+        return yValues[index];
+    }
+
+    // Обход и копирование точек без проверки индекса на каждой точке
+    @Override
+    public void forEachPoint(DoubleBiConsumer action) {
+        if (general != null) {
+            general.forEachPoint(action);
+            return;
+        }
+        for (int i = 0; i < pointsCount; i++) {
+            action.accept(x(i), yValues[i]);
+        }
+    }
+
+    @Override
+    public void copyXs(double[] destination) {
+        if (general != null) {
+            general.copyXs(destination);
+            return;
+        }
+        if (destination.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        for (int i = 0; i < pointsCount; i++) {
+            destination[i] = x(i);
+        }
+    }
+
+    @Override
+    public void copyYs(double[] destination) {
+        if (general != null) {
+            general.copyYs(destination);
+            return;
+        }
+        if (destination.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        System.arraycopy(yValues, 0, destination, 0, pointsCount);
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws
+            FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        if (general != null) {
+            general.setPoint(index, point);
+            return;
+        }
+        checkIndex(index);
+        if (point.getX() != x(index)) {
+            ArrayTabulatedFunction function = toGeneral();
+            function.setPoint(index, point);
+            setGeneral(function);
+            return;
+        }
+        checkNeighbours(index, point.getX(), "X-координата точки");
+        yValues[index] = point.getY();
+    }
+
+    public void setPointX(int index, double x) throws
+            FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        if (general != null) {
+            general.setPointX(index, x);
+            return;
+        }
+        checkIndex(index);
+        if (x != x(index)) {
+            ArrayTabulatedFunction function = toGeneral();
+            function.setPointX(index, x);
+            setGeneral(function);
+            return;
+        }
+        checkNeighbours(index, x, "X-координата");
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        if (general != null) {
+            general.setPointY(index, y);
+            return;
+        }
+        checkIndex(index);
+        yValues[index] = y;
+    }
+
+    // Методы для изменения количества точек
+    public void deletePoint(int index) throws
+            FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        if (general != null) {
+            general.deletePoint(index);
+            return;
+        }
+        checkIndex(index);
+        if (pointsCount <= 2) {
+            throw new IllegalStateException("Нельзя удалить точку: функция должна содержать минимум 2 точки");
+        }
+
+        if (index == 0) {
+            // Начало отсчёта не меняется, сдвигается номер первого узла
+            System.arraycopy(yValues, 1, yValues, 0, pointsCount - 1);
+            firstIndex++;
+            pointsCount--;
+        } else if (index == pointsCount - 1) {
+            pointsCount--;
+        } else {
+            ArrayTabulatedFunction function = toGeneral();
+            function.deletePoint(index);
+            setGeneral(function);
+        }
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        if (general != null) {
+            general.addPoint(point);
+            return;
+        }
+
+        // Проверяем, нет ли уже точки с такой x-координатой: достаточно ближайших узлов
+        double x = point.getX();
+        double nearest = Math.rint((x - x(0)) * inverseStep);
+        int j = (int) Math.max(0, Math.min(pointsCount - 1, nearest));
+        for (int k = Math.max(0, j - 1); k <= Math.min(pointsCount - 1, j + 1); k++) {
+            if (Math.abs(x(k) - x) < EPSILON) {
+                throw new InappropriateFunctionPointException(
+                    "Точка с x=" + x + " уже существует");
+            }
+        }
+
+        if (x == x(pointsCount)) {
+            // Следующий узел справа
+            ensureCapacity();
+            yValues[pointsCount] = point.getY();
+            pointsCount++;
+        } else if (x == x(-1)) {
+            // Следующий узел слева
+            ensureCapacity();
+            System.arraycopy(yValues, 0, yValues, 1, pointsCount);
+            yValues[0] = point.getY();
+            firstIndex--;
+            pointsCount++;
+        } else {
+            ArrayTabulatedFunction function = toGeneral();
+            function.addPoint(point);
+            setGeneral(function);
+        }
+    }
+
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        if (general != null) {
+            general.addPoints(xs, ys);
+            return;
+        }
+        if (xs.length == 0 && ys.length == 0) {
+            return;
+        }
+        ArrayTabulatedFunction function = toGeneral();
+        function.addPoints(xs, ys);
+        setGeneral(function);
+    }
+
+    public void deleteRange(int from, int to) throws
+            FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        if (general != null) {
+            general.deleteRange(from, to);
+            return;
+        }
+        BulkPoints.checkRange(from, to, pointsCount);
+        if (from == to) {
+            return;
+        }
+
+        if (from == 0 || to == pointsCount) {
+            // Удаление с края сохраняет равномерность сетки
+            System.arraycopy(yValues, to, yValues, from, pointsCount - to);
+            if (from == 0) {
+                firstIndex += to;
+            }
+            pointsCount -= to - from;
+        } else {
+            ArrayTabulatedFunction function = toGeneral();
+            function.deleteRange(from, to);
+            setGeneral(function);
+        }
+    }
+
+    // Удаляемые точки отмечаются в битовой маске. Если оставшиеся точки идут подряд,
+    // удалены только крайние точки и сетка остаётся равномерной, как в deleteRange
+    public boolean removeIf(DoubleBiPredicate filter) throws IllegalStateException {
+        if (general != null) {
+            return general.removeIf(filter);
+        }
+        long[] removed = new long[(pointsCount + 63) >>> 6];
+        int removedCount = 0;
+        int firstKept = -1;
+        int lastKept = -1;
+        for (int i = 0; i < pointsCount; i++) {
+            if (filter.test(x(i), yValues[i])) {
+                removed[i >>> 6] |= 1L << i;
+                removedCount++;
+            } else {
+                if (firstKept < 0) {
+                    firstKept = i;
+                }
+                lastKept = i;
+            }
+        }
+        BulkPoints.checkRemaining(pointsCount - removedCount, removedCount);
+        if (removedCount == 0) {
+            return false;
+        }
+
+        int kept = pointsCount - removedCount;
+        if (lastKept - firstKept + 1 == kept) {
+            System.arraycopy(yValues, firstKept, yValues, 0, kept);
+            firstIndex += firstKept;
+            pointsCount = kept;
+            return true;
+        }
+
+        double[] xValues = new double[kept + 2];
+        double[] values = new double[kept + 2];
+        int k = 0;
+        for (int i = 0; i < pointsCount; i++) {
+            if ((removed[i >>> 6] & 1L << i) == 0) {
+                xValues[k] = x(i);
+                values[k] = yValues[i];
+                k++;
+            }
+        }
+        setGeneral(new ArrayTabulatedFunction(xValues, values, kept, 0));
+        return true;
+    }
+
+    private void ensureCapacity() {
+        if (pointsCount >= yValues.length) {
+            yValues = Arrays.copyOf(yValues, yValues.length * 2);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " вне границ [0, " + (pointsCount-1) + "]");
+        }
+    }
+
+    // Проверка корректности x-координаты, как в ArrayTabulatedFunction
+    private void checkNeighbours(int index, double x, String subject) throws InappropriateFunctionPointException {
+        if (index > 0 && x <= x(index - 1) + EPSILON) {
+            throw new InappropriateFunctionPointException(
+                subject + " (" + x + ") должна быть больше предыдущей (" + x(index - 1) + ")");
+        }
+        if (index < pointsCount - 1 && x >= x(index + 1) - EPSILON) {
+            throw new InappropriateFunctionPointException(
+                subject + " (" + x + ") должна быть меньше следующей (" + x(index + 1) + ")");
+        }
+    }
+
+    // Копия точек в общем представлении; становится основным после успешного изменения,
+    // поэтому неудачная операция оставляет функцию равномерной
+    private ArrayTabulatedFunction toGeneral() {
+        double[] xValues = new double[pointsCount + 2];
+        double[] values = new double[pointsCount + 2];
+        for (int i = 0; i < pointsCount; i++) {
+            xValues[i] = x(i);
+        }
+        System.arraycopy(yValues, 0, values, 0, pointsCount);
+        return new ArrayTabulatedFunction(xValues, values, pointsCount, step);
+    }
+
+    private void setGeneral(ArrayTabulatedFunction function) {
+        general = function;
+        yValues = null;
+    }
+
+    // Сериализация: байт представления, затем сетка и значения y
+    // или точки общего представления в формате PackedPoints
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeBoolean(general != null);
+        if (general == null) {
+            out.writeDouble(originX);
+            out.writeDouble(step);
+            out.writeInt(firstIndex);
+            out.writeInt(pointsCount);
+            PackedPoints.writeValues(out, yValues, pointsCount);
+        } else {
+            general.writePoints(out);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (in.readBoolean()) {
+            PackedPoints points = PackedPoints.read(in);
+            if (points.pointsCount < 2) {
+                throw new InvalidObjectException("Требуется не менее 2 точек, получено " + points.pointsCount);
+            }
+            general = new ArrayTabulatedFunction(points.xValues, points.yValues, points.pointsCount, points.gridStep);
+        } else {
+            double originX = in.readDouble();
+            double step = in.readDouble();
+            int firstIndex = in.readInt();
+            int pointsCount = in.readInt();
+            if (pointsCount < 2 || !(step > 0)) {
+                throw new InvalidObjectException("Некорректная равномерная сетка");
+            }
+            double[] yValues = new double[pointsCount];
+            PackedPoints.readValues(in, yValues, pointsCount);
+            init(originX, step, yValues, pointsCount);
+            this.firstIndex = firstIndex;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package functions.basic;
+
+import functions.Function;
+
+import java.util.Arrays;
+
+public class Constant implements Function {
+    private double value;
+
+    public Constant(double value) {
+        this.value = value;
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        return value;
+    }
+
+    @Override
+    public void getFunctionValues(double[] xValues, int xOffset, double[] values, int offset, int length) {
+        Arrays.fill(values, offset, offset + length, value);
+    }
+
+    public double getValue() {
+        return value;
+    }
+}
@@ -18,4 +18,11 @@ public class Exp implements Function {
     public double getFunctionValue(double x) {
         return Math.exp(x);
     }
+
+    @Override
+    public void getFunctionValues(double[] xValues, int xOffset, double[] values, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            values[offset + i] = Math.exp(xValues[xOffset + i]);
+        }
+    }
 }
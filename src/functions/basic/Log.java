@@ -39,6 +39,16 @@ public class Log implements Function {
         return Math.log(x) / Math.log(base);
     }
 
+    @Override
+    public void getFunctionValues(double[] xValues, int xOffset, double[] values, int offset, int length) {
+        // Логарифм основания вычисляется один раз на весь массив
+        double logBase = Math.log(base);
+        for (int i = 0; i < length; i++) {
+            double x = xValues[xOffset + i];
+            values[offset + i] = x <= 0 ? Double.NaN : Math.log(x) / logBase;
+        }
+    }
+
     public double getBase() {
         return base;
     }
@@ -5,4 +5,11 @@ public class Sin extends TrigonometricFunction {
     public double getFunctionValue(double x) {
         return Math.sin(x);
     }
+
+    @Override
+    public void getFunctionValues(double[] xValues, int xOffset, double[] values, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            values[offset + i] = Math.sin(xValues[xOffset + i]);
+        }
+    }
 }
\ No newline at end of file
@@ -5,4 +5,11 @@ public class Tan extends TrigonometricFunction {
     public double getFunctionValue(double x) {
         return Math.tan(x);
     }
+
+    @Override
+    public void getFunctionValues(double[] xValues, int xOffset, double[] values, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            values[offset + i] = Math.tan(xValues[xOffset + i]);
+        }
+    }
 }
@@ -0,0 +1,112 @@
+package functions.meta;
+
+// Поэлементные операции пакетного вычисления над порциями массивов.
+// Если при запуске подключён модуль jdk.incubator.vector (--add-modules jdk.incubator.vector),
+// операции выполняет VectorBatchKernels из отдельного каталога исходников src-vector,
+// загружаемый через отражение; иначе - скалярные циклы ScalarKernels, которые JIT
+// векторизует сам, когда может. Результаты обеих реализаций совпадают побитово.
+// Пакет обрабатывается порциями по CHUNK_SIZE значений, чтобы временные массивы
+// оставались в кэше процессора и не зависели от длины пакета
+final class BatchKernels {
+    static final int CHUNK_SIZE = 1024;
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNELS = "functions.meta.VectorBatchKernels";
+
+    // Выбирается один раз; единственная реализация в поле static final встраивается JIT
+    private static final Kernels KERNELS = loadKernels();
+
+    private BatchKernels() {
+        throw new AssertionError("Не удается создать экземпляр служебного класса");
+    }
+
+    interface Kernels {
+        void add(double[] result, double[] term, int length);
+
+        void multiply(double[] result, double[] term, int length);
+
+        void copyInDomain(double[] xValues, int xOffset, double[] result, double[] values, int offset,
+                          int length, double left, double right);
+
+        void propagateNaN(double[] innerValues, double[] values, int offset, int length);
+    }
+
+    static void add(double[] result, double[] term, int length) {
+        KERNELS.add(result, term, length);
+    }
+
+    static void multiply(double[] result, double[] term, int length) {
+        KERNELS.multiply(result, term, length);
+    }
+
+    // Запись результатов порции с NaN для аргументов вне [left, right]
+    static void copyInDomain(double[] xValues, int xOffset, double[] result, double[] values, int offset,
+                             int length, double left, double right) {
+        KERNELS.copyInDomain(xValues, xOffset, result, values, offset, length, left, right);
+    }
+
+    // NaN в значениях, где NaN было значение внутренней функции
+    static void propagateNaN(double[] innerValues, double[] values, int offset, int length) {
+        KERNELS.propagateNaN(innerValues, values, offset, length);
+    }
+
+    private static Kernels loadKernels() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return (Kernels) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Класс не собран (исходники без src-vector): остаются скалярные циклы
+            }
+        }
+        return new ScalarKernels();
+    }
+
+    // Простые счётные циклы без ветвлений и зависимостей между итерациями
+    private static final class ScalarKernels implements Kernels {
+        @Override
+        public void add(double[] result, double[] term, int length) {
+            for (int i = 0; i < length; i++) {
+                result[i] += term[i];
+            }
+        }
+
+        @Override
+        public void multiply(double[] result, double[] term, int length) {
+            for (int i = 0; i < length; i++) {
+                result[i] *= term[i];
+            }
+        }
+
+        @Override
+        public void copyInDomain(double[] xValues, int xOffset, double[] result, double[] values, int offset,
+                                 int length, double left, double right) {
+            // Если все аргументы порции в области определения, результаты копируются без проверок
+            // (при NaN среди аргументов минимум и максимум - NaN, и выбирается общий путь)
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < length; i++) {
+                double x = xValues[xOffset + i];
+                min = Math.min(min, x);
+                max = Math.max(max, x);
+            }
+            if (min >= left && max <= right) {
+                System.arraycopy(result, 0, values, offset, length);
+                return;
+            }
+
+            for (int i = 0; i < length; i++) {
+                double x = xValues[xOffset + i];
+                values[offset + i] = x < left || x > right ? Double.NaN : result[i];
+            }
+        }
+
+        @Override
+        public void propagateNaN(double[] innerValues, double[] values, int offset, int length) {
+            for (int i = 0; i < length; i++) {
+                if (Double.isNaN(innerValues[i])) {
+                    values[offset + i] = Double.NaN;
+                }
+            }
+        }
+    }
+}
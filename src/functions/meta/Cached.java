@@ -0,0 +1,288 @@
+package functions.meta;
+
+import functions.Function;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+// Функция с ограниченным кэшем вычисленных значений. Ключи и значения хранятся в массивах
+// примитивов (без упаковки в Double), таблица разбита на сегменты со своими блокировками.
+// Повторный запрос того же x стоит одного поиска в хэш-таблице вместо вычисления дерева
+public class Cached implements Function {
+    // Политика вытеснения при заполнении кэша
+    public enum Policy {
+        // Вытесняется давно не использованное значение; каждое попадание перестраивает очередь
+        LRU,
+        // Алгоритм "часы": попадание только ставит бит обращения и не берёт блокировку записи
+        CLOCK
+    }
+
+    private static final int MAX_SEGMENTS = 16;
+    // Сегменты не делаются мельче, чтобы вытеснение оставалось близким к глобальному
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+
+    private final Function f;
+    private final Policy policy;
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public Cached(Function f, int capacity, Policy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Ёмкость кэша должна быть положительной");
+        }
+        this.f = f;
+        this.policy = policy;
+
+        int segmentsCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, capacity / MIN_SEGMENT_CAPACITY)));
+        this.segments = new Segment[segmentsCount];
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentsCount);
+        for (int i = 0; i < segmentsCount; i++) {
+            // Ёмкость распределяется по сегментам с точностью до единицы
+            int segmentCapacity = capacity / segmentsCount + (i < capacity % segmentsCount ? 1 : 0);
+            segments[i] = new Segment(segmentCapacity, policy);
+        }
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return f.getLeftDomainBorder();
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        return f.getRightDomainBorder();
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        long key = Double.doubleToLongBits(x);
+        int hash = hash(key);
+        Segment segment = segmentShift == 32 ? segments[0] : segments[hash >>> segmentShift];
+
+        return segment.getOrCompute(key, hash, x);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public Function getFunction() {
+        return f;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // Сегмент: записи с индексами [0, capacity), открытая адресация с линейным пробированием
+    // по таблице индексов записей (0 - пустая ячейка, иначе индекс + 1)
+    private class Segment {
+        private final Policy policy;
+        private final StampedLock lock = new StampedLock();
+        private final int capacity;
+        private final long[] keys;
+        private final double[] values;
+        private final int[] table;
+        private final int mask;
+        private int size;
+        // LRU: двусвязная очередь записей от недавних к давним
+        private final int[] prev;
+        private final int[] next;
+        private int newest = -1;
+        private int oldest = -1;
+        // CLOCK: биты обращения и стрелка
+        private final boolean[] referenced;
+        private int hand;
+
+        Segment(int capacity, Policy policy) {
+            this.policy = policy;
+            this.capacity = capacity;
+            this.keys = new long[capacity];
+            this.values = new double[capacity];
+            this.table = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+            this.mask = table.length - 1;
+            this.prev = policy == Policy.LRU ? new int[capacity] : null;
+            this.next = policy == Policy.LRU ? new int[capacity] : null;
+            this.referenced = policy == Policy.CLOCK ? new boolean[capacity] : null;
+        }
+
+        double getOrCompute(long key, int hash, double x) {
+            if (policy == Policy.CLOCK) {
+                // Оптимистичное чтение без блокировки; при конкурентной записи - повтор под чтением
+                long stamp = lock.tryOptimisticRead();
+                int entry = probe(key, hash);
+                double value = entry >= 0 ? values[entry] : 0;
+                if (!lock.validate(stamp)) {
+                    stamp = lock.readLock();
+                    try {
+                        entry = probe(key, hash);
+                        value = entry >= 0 ? values[entry] : 0;
+                    } finally {
+                        lock.unlockRead(stamp);
+                    }
+                }
+                if (entry >= 0) {
+                    // Гонка при установке бита обращения безвредна
+                    referenced[entry] = true;
+                    hits.increment();
+                    return value;
+                }
+            } else {
+                // LRU: попадание меняет порядок очереди
+                long stamp = lock.writeLock();
+                try {
+                    int entry = probe(key, hash);
+                    if (entry >= 0) {
+                        moveToNewest(entry);
+                        hits.increment();
+                        return values[entry];
+                    }
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+            }
+
+            // Вычисление вне блокировки: параллельные промахи по одному x просто вычислят его дважды
+            misses.increment();
+            double value = f.getFunctionValue(x);
+            put(key, hash, value);
+            return value;
+        }
+
+        void put(long key, int hash, double value) {
+            long stamp = lock.writeLock();
+            try {
+                int entry = probe(key, hash);
+                if (entry >= 0) {
+                    values[entry] = value;
+                    return;
+                }
+
+                if (size < capacity) {
+                    entry = size++;
+                } else {
+                    entry = policy == Policy.LRU ? oldest : advanceHand();
+                    removeFromTable(entry);
+                    if (policy == Policy.LRU) {
+                        unlink(entry);
+                    }
+                }
+
+                keys[entry] = key;
+                values[entry] = value;
+                int slot = hash & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = entry + 1;
+
+                if (policy == Policy.LRU) {
+                    linkNewest(entry);
+                } else {
+                    referenced[entry] = true;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        // Поиск ограничен размером таблицы, поэтому завершается и при несогласованном
+        // оптимистичном чтении
+        private int probe(long key, int hash) {
+            int slot = hash & mask;
+            for (int i = 0; i <= mask; i++) {
+                int entry = table[slot] - 1;
+                if (entry < 0) {
+                    return -1;
+                }
+                if (entry < capacity && keys[entry] == key) {
+                    return entry;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        // Удаление записи из таблицы со сдвигом следующих ячеек кластера
+        private void removeFromTable(int entry) {
+            int slot = hash(keys[entry]) & mask;
+            while (table[slot] != entry + 1) {
+                slot = (slot + 1) & mask;
+            }
+
+            int hole = slot;
+            int current = slot;
+            while (true) {
+                current = (current + 1) & mask;
+                if (table[current] == 0) {
+                    break;
+                }
+                int home = hash(keys[table[current] - 1]) & mask;
+                // Ячейку можно переместить в дыру, если её исходная позиция не лежит в (hole, current]
+                boolean between = hole <= current
+                        ? home > hole && home <= current
+                        : home > hole || home <= current;
+                if (!between) {
+                    table[hole] = table[current];
+                    hole = current;
+                }
+            }
+            table[hole] = 0;
+        }
+
+        private int advanceHand() {
+            while (referenced[hand]) {
+                referenced[hand] = false;
+                hand = (hand + 1) % capacity;
+            }
+            int victim = hand;
+            hand = (hand + 1) % capacity;
+            return victim;
+        }
+
+        private void moveToNewest(int entry) {
+            if (entry != newest) {
+                unlink(entry);
+                linkNewest(entry);
+            }
+        }
+
+        private void unlink(int entry) {
+            int before = prev[entry];
+            int after = next[entry];
+            if (before >= 0) {
+                next[before] = after;
+            } else {
+                newest = after;
+            }
+            if (after >= 0) {
+                prev[after] = before;
+            } else {
+                oldest = before;
+            }
+        }
+
+        private void linkNewest(int entry) {
+            prev[entry] = -1;
+            next[entry] = newest;
+            if (newest >= 0) {
+                prev[newest] = entry;
+            }
+            newest = entry;
+            if (oldest < 0) {
+                oldest = entry;
+            }
+        }
+    }
+}
@@ -31,4 +31,25 @@ public class Composition implements Function {
         }
         return f1.getFunctionValue(innerValue);
     }
+
+    @Override
+    public void getFunctionValues(double[] xValues, int xOffset, double[] values, int offset, int length) {
+        // Значения внутренней функции вычисляются порциями во временный массив
+        int chunkSize = Math.min(length, BatchKernels.CHUNK_SIZE);
+        double[] innerValues = new double[chunkSize];
+        for (int from = 0; from < length; from += chunkSize) {
+            int count = Math.min(chunkSize, length - from);
+            f2.getFunctionValues(xValues, xOffset + from, innerValues, 0, count);
+            f1.getFunctionValues(innerValues, 0, values, offset + from, count);
+            BatchKernels.propagateNaN(innerValues, values, offset + from, count);
+        }
+    }
+
+    public Function getOuterFunction() {
+        return f1;
+    }
+
+    public Function getInnerFunction() {
+        return f2;
+    }
 }
@@ -0,0 +1,206 @@
+package functions.meta;
+
+import functions.Function;
+import functions.basic.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+// Компиляция дерева функций в одну цепочку MethodHandle: узлы functions.meta и functions.basic
+// превращаются в комбинаторы java.lang.invoke, которые JIT встраивает целиком, без
+// мегаморфных вызовов getFunctionValue. Неизвестные узлы (в том числе табулированные
+// функции) вызываются как обычно
+public final class FunctionCompiler {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType UNARY = MethodType.methodType(double.class, double.class);
+    private static final MethodType BINARY = MethodType.methodType(double.class, double.class, double.class);
+
+    private static final MethodHandle ADD;
+    private static final MethodHandle MULTIPLY;
+    private static final MethodHandle LOG;
+    private static final MethodHandle IS_NAN;
+    private static final MethodHandle OUTSIDE;
+    private static final MethodHandle OUTSIDE_OF_NODE;
+    private static final MethodHandle NAN;
+    private static final MethodHandle APPLY_POWER;
+    private static final MethodHandle GET_FUNCTION_VALUE;
+
+    static {
+        try {
+            ADD = LOOKUP.findStatic(FunctionCompiler.class, "add", BINARY);
+            MULTIPLY = LOOKUP.findStatic(FunctionCompiler.class, "multiply", BINARY);
+            LOG = LOOKUP.findStatic(FunctionCompiler.class, "log", BINARY);
+            IS_NAN = LOOKUP.findStatic(Double.class, "isNaN", MethodType.methodType(boolean.class, double.class));
+            OUTSIDE = LOOKUP.findStatic(FunctionCompiler.class, "outside",
+                    MethodType.methodType(boolean.class, double.class, double.class, double.class));
+            OUTSIDE_OF_NODE = LOOKUP.findStatic(FunctionCompiler.class, "outside",
+                    MethodType.methodType(boolean.class, Function.class, double.class));
+            NAN = MethodHandles.dropArguments(MethodHandles.constant(double.class, Double.NaN), 0, double.class);
+            APPLY_POWER = LOOKUP.findVirtual(Power.class, "applyPower", UNARY);
+            GET_FUNCTION_VALUE = LOOKUP.findVirtual(Function.class, "getFunctionValue", UNARY);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private FunctionCompiler() {
+        throw new AssertionError("Не удается создать экземпляр служебного класса");
+    }
+
+    // Результат вычисляет те же значения, что и исходное дерево; области определения
+    // запрашиваются у исходной функции
+    public static Function compile(Function function) {
+        return new CompiledFunction(function, compileNode(function).handle);
+    }
+
+    // Скомпилированный узел; closed - в поддереве нет неизвестных узлов, поэтому его
+    // область определения не меняется и может быть вычислена при компиляции
+    private static class CompiledNode {
+        private final MethodHandle handle;
+        private final boolean closed;
+
+        CompiledNode(MethodHandle handle, boolean closed) {
+            this.handle = handle;
+            this.closed = closed;
+        }
+    }
+
+    private static CompiledNode compileNode(Function function) {
+        Class<?> type = function.getClass();
+        try {
+            if (type == Sin.class) {
+                return new CompiledNode(LOOKUP.findStatic(Math.class, "sin", UNARY), true);
+            }
+            if (type == Cos.class) {
+                return new CompiledNode(LOOKUP.findStatic(Math.class, "cos", UNARY), true);
+            }
+            if (type == Tan.class) {
+                return new CompiledNode(LOOKUP.findStatic(Math.class, "tan", UNARY), true);
+            }
+            if (type == Exp.class) {
+                return new CompiledNode(LOOKUP.findStatic(Math.class, "exp", UNARY), true);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        if (type == Log.class) {
+            double logBase = Math.log(((Log) function).getBase());
+            return new CompiledNode(MethodHandles.insertArguments(LOG, 1, logBase), true);
+        }
+        if (type == Constant.class) {
+            MethodHandle constant = MethodHandles.constant(double.class, ((Constant) function).getValue());
+            return new CompiledNode(MethodHandles.dropArguments(constant, 0, double.class), true);
+        }
+        if (type == Shift.class) {
+            Shift shift = (Shift) function;
+            CompiledNode inner = compileNode(shift.getFunction());
+            MethodHandle handle = MethodHandles.filterArguments(inner.handle, 0,
+                    MethodHandles.insertArguments(ADD, 1, shift.getShiftX()));
+            // NaN при сложении остаётся NaN, отдельная проверка не нужна
+            handle = MethodHandles.filterReturnValue(handle, MethodHandles.insertArguments(ADD, 1, shift.getShiftY()));
+            return new CompiledNode(handle, inner.closed);
+        }
+        if (type == Scale.class) {
+            Scale scale = (Scale) function;
+            CompiledNode inner = compileNode(scale.getFunction());
+            MethodHandle handle = MethodHandles.filterArguments(inner.handle, 0,
+                    MethodHandles.insertArguments(MULTIPLY, 1, scale.getScaleX()));
+            handle = MethodHandles.filterReturnValue(handle, MethodHandles.insertArguments(MULTIPLY, 1, scale.getScaleY()));
+            return new CompiledNode(handle, inner.closed);
+        }
+        if (type == Power.class) {
+            CompiledNode inner = compileNode(((Power) function).getFunction());
+            MethodHandle handle = MethodHandles.filterReturnValue(inner.handle, APPLY_POWER.bindTo(function));
+            return new CompiledNode(handle, inner.closed);
+        }
+        if (type == Composition.class) {
+            Composition composition = (Composition) function;
+            CompiledNode outer = compileNode(composition.getOuterFunction());
+            CompiledNode inner = compileNode(composition.getInnerFunction());
+            // NaN внутренней функции не передаётся во внешнюю
+            MethodHandle guardedOuter = MethodHandles.guardWithTest(IS_NAN, NAN, outer.handle);
+            MethodHandle handle = MethodHandles.filterReturnValue(inner.handle, guardedOuter);
+            return new CompiledNode(handle, outer.closed && inner.closed);
+        }
+        if (type == Sum.class) {
+            return compileReduction(function, ((Sum) function).getFunctions(), ADD);
+        }
+        if (type == Mult.class) {
+            return compileReduction(function, ((Mult) function).getFunctions(), MULTIPLY);
+        }
+
+        // Неизвестный узел вызывается через интерфейс
+        return new CompiledNode(GET_FUNCTION_VALUE.bindTo(function), false);
+    }
+
+    // Свёртка ((f1 op f2) op f3) ... с проверкой области определения, как в Sum и Mult
+    private static CompiledNode compileReduction(Function node, Function[] functions, MethodHandle operation) {
+        CompiledNode first = compileNode(functions[0]);
+        MethodHandle handle = first.handle;
+        boolean closed = first.closed;
+        for (int i = 1; i < functions.length; i++) {
+            CompiledNode next = compileNode(functions[i]);
+            MethodHandle combined = MethodHandles.filterArguments(operation, 0, handle, next.handle);
+            // Один аргумент x передаётся обоим операндам
+            handle = MethodHandles.permuteArguments(combined, UNARY, 0, 0);
+            closed &= next.closed;
+        }
+
+        MethodHandle outside = closed
+                ? MethodHandles.insertArguments(OUTSIDE, 1, node.getLeftDomainBorder(), node.getRightDomainBorder())
+                : OUTSIDE_OF_NODE.bindTo(node);
+        return new CompiledNode(MethodHandles.guardWithTest(outside, NAN, handle), closed);
+    }
+
+    private static double add(double a, double b) {
+        return a + b;
+    }
+
+    private static double multiply(double a, double b) {
+        return a * b;
+    }
+
+    private static double log(double x, double logBase) {
+        return x <= 0 ? Double.NaN : Math.log(x) / logBase;
+    }
+
+    private static boolean outside(double x, double left, double right) {
+        return x < left || x > right;
+    }
+
+    private static boolean outside(Function node, double x) {
+        return x < node.getLeftDomainBorder() || x > node.getRightDomainBorder();
+    }
+
+    private static class CompiledFunction implements Function {
+        private final Function source;
+        private final MethodHandle handle;
+
+        CompiledFunction(Function source, MethodHandle handle) {
+            this.source = source;
+            this.handle = handle;
+        }
+
+        @Override
+        public double getLeftDomainBorder() {
+            return source.getLeftDomainBorder();
+        }
+
+        @Override
+        public double getRightDomainBorder() {
+            return source.getRightDomainBorder();
+        }
+
+        @Override
+        public double getFunctionValue(double x) {
+            try {
+                return (double) handle.invokeExact(x);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package functions.meta;
+
+import functions.Function;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Инструментированное дерево функций: каждый узел functions.meta пересобирается с
+// инструментированными аргументами и оборачивается счётчиками вычислений, значений NaN и
+// гистограммой задержек. Время узла включает время его поддеревьев, поэтому медленное
+// поддерево видно по разнице между узлом и его аргументами. Остальные функции (базовые,
+// табулированные) считаются листьями
+public class Instrumented implements Function, InstrumentedMXBean {
+    // Задержка одиночного вызова измеряется в среднем у одного из LATENCY_SAMPLE_RATE вызовов узла:
+    // System.nanoTime на каждом вызове стоит дороже самих простых функций. Выборка случайная
+    // по генератору потока, поэтому горячий путь не пишет в общую память
+    private static final int LATENCY_SAMPLE_RATE = 16;
+    private static final int HISTOGRAM_SIZE = 40;
+
+    private final Function f;
+    private final String name;
+    private final Instrumented[] children;
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder nans = new LongAdder();
+    private final LongAdder sampledEvaluations = new LongAdder();
+    private final LongAdder sampledNanos = new LongAdder();
+    private final LongAdder[] histogram = new LongAdder[HISTOGRAM_SIZE];
+    private ObjectName objectName;
+
+    private Instrumented(Function f, String name, Instrumented... children) {
+        this.f = f;
+        this.name = name;
+        this.children = children;
+        for (int i = 0; i < HISTOGRAM_SIZE; i++) {
+            histogram[i] = new LongAdder();
+        }
+    }
+
+    // Инструментированная копия дерева; исходное дерево не изменяется
+    public static Instrumented instrument(Function function) {
+        if (function instanceof Shift) {
+            Shift shift = (Shift) function;
+            Instrumented inner = instrument(shift.getFunction());
+            return new Instrumented(new Shift(inner, shift.getShiftX(), shift.getShiftY()),
+                    "Shift(" + shift.getShiftX() + ", " + shift.getShiftY() + ")", inner);
+        }
+        if (function instanceof Scale) {
+            Scale scale = (Scale) function;
+            Instrumented inner = instrument(scale.getFunction());
+            return new Instrumented(new Scale(inner, scale.getScaleX(), scale.getScaleY()),
+                    "Scale(" + scale.getScaleX() + ", " + scale.getScaleY() + ")", inner);
+        }
+        if (function instanceof Power) {
+            Power power = (Power) function;
+            Instrumented inner = instrument(power.getFunction());
+            Power copy = power.isByMultiplication()
+                    ? Power.byMultiplication(inner, (int) power.getPower())
+                    : new Power(inner, power.getPower());
+            return new Instrumented(copy, "Power(" + power.getPower() + ")", inner);
+        }
+        if (function instanceof Composition) {
+            Composition composition = (Composition) function;
+            Instrumented outer = instrument(composition.getOuterFunction());
+            Instrumented inner = instrument(composition.getInnerFunction());
+            return new Instrumented(new Composition(outer, inner), "Composition", outer, inner);
+        }
+        if (function instanceof Sum) {
+            Instrumented[] terms = instrumentAll(((Sum) function).getFunctions());
+            return new Instrumented(new Sum(terms), "Sum", terms);
+        }
+        if (function instanceof Mult) {
+            Instrumented[] factors = instrumentAll(((Mult) function).getFunctions());
+            return new Instrumented(new Mult(factors), "Mult", factors);
+        }
+        return new Instrumented(function, function.getClass().getSimpleName());
+    }
+
+    private static Instrumented[] instrumentAll(Function[] functions) {
+        Instrumented[] result = new Instrumented[functions.length];
+        for (int i = 0; i < functions.length; i++) {
+            result[i] = instrument(functions[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return f.getLeftDomainBorder();
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        return f.getRightDomainBorder();
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        evaluations.increment();
+        double value;
+        if (ThreadLocalRandom.current().nextInt(LATENCY_SAMPLE_RATE) == 0) {
+            long start = System.nanoTime();
+            value = f.getFunctionValue(x);
+            recordLatency(System.nanoTime() - start, 1);
+        } else {
+            value = f.getFunctionValue(x);
+        }
+        if (Double.isNaN(value)) {
+            nans.increment();
+        }
+        return value;
+    }
+
+    // Пакетный вызов измеряется целиком; в гистограмму попадает средняя задержка
+    // на одно значение с весом length
+    @Override
+    public void getFunctionValues(double[] xValues, int xOffset, double[] values, int offset, int length) {
+        long start = System.nanoTime();
+        f.getFunctionValues(xValues, xOffset, values, offset, length);
+        long elapsed = System.nanoTime() - start;
+
+        evaluations.add(length);
+        if (length > 0) {
+            recordLatency(elapsed, length);
+        }
+        int nanCount = 0;
+        for (int i = 0; i < length; i++) {
+            if (Double.isNaN(values[offset + i])) {
+                nanCount++;
+            }
+        }
+        if (nanCount > 0) {
+            nans.add(nanCount);
+        }
+    }
+
+    private void recordLatency(long nanos, int count) {
+        sampledEvaluations.add(count);
+        sampledNanos.add(nanos);
+        long perEvaluation = nanos / count;
+        int bucket = Math.min(HISTOGRAM_SIZE - 1, 64 - Long.numberOfLeadingZeros(perEvaluation));
+        histogram[bucket].add(count);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getEvaluationCount() {
+        return evaluations.sum();
+    }
+
+    @Override
+    public long getNaNCount() {
+        return nans.sum();
+    }
+
+    @Override
+    public double getMeanLatencyNanos() {
+        long sampled = sampledEvaluations.sum();
+        return sampled == 0 ? 0 : (double) sampledNanos.sum() / sampled;
+    }
+
+    @Override
+    public long[] getLatencyHistogram() {
+        long[] result = new long[HISTOGRAM_SIZE];
+        for (int i = 0; i < HISTOGRAM_SIZE; i++) {
+            result[i] = histogram[i].sum();
+        }
+        return result;
+    }
+
+    @Override
+    public String[] getNodeReport() {
+        List<String> lines = new ArrayList<>();
+        report(name, lines);
+        return lines.toArray(new String[0]);
+    }
+
+    private void report(String path, List<String> lines) {
+        lines.add(path + ": вычислений " + getEvaluationCount() + ", NaN " + getNaNCount()
+                + ", среднее время " + String.format("%.1f", getMeanLatencyNanos()) + " нс");
+        for (int i = 0; i < children.length; i++) {
+            children[i].report(path + "/" + i + ":" + children[i].name, lines);
+        }
+    }
+
+    // Сброс показателей всего дерева
+    @Override
+    public void reset() {
+        evaluations.reset();
+        nans.reset();
+        sampledEvaluations.reset();
+        sampledNanos.reset();
+        for (LongAdder bucket : histogram) {
+            bucket.reset();
+        }
+        for (Instrumented child : children) {
+            child.reset();
+        }
+    }
+
+    public Function getFunction() {
+        return f;
+    }
+
+    // Непосредственные инструментированные аргументы узла
+    public Instrumented[] getChildren() {
+        return children.clone();
+    }
+
+    // Регистрация в платформенном MBeanServer под именем functions:type=Function,name=<name>
+    public synchronized void register(String name) {
+        if (objectName != null) {
+            throw new IllegalStateException("Функция уже зарегистрирована: " + objectName);
+        }
+        try {
+            ObjectName candidate = new ObjectName("functions:type=Function,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, candidate);
+            objectName = candidate;
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Не удалось зарегистрировать MBean " + name, e);
+        }
+    }
+
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            objectName = null;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package functions.meta;
+
+// Сводные показатели инструментированного дерева функций, публикуемые через JMX.
+// Показатели корня включают время вычисления всех его поддеревьев
+public interface InstrumentedMXBean {
+    String getName();
+
+    long getEvaluationCount();
+
+    long getNaNCount();
+
+    double getMeanLatencyNanos();
+
+    // Число измеренных вычислений по интервалам [2^(i-1), 2^i) наносекунд
+    long[] getLatencyHistogram();
+
+    // Одна строка на узел дерева в порядке обхода сверху вниз
+    String[] getNodeReport();
+
+    void reset();
+}
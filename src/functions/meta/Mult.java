@@ -3,29 +3,71 @@ package functions.meta;
 import functions.Function;
 
 public class Mult implements Function {
-    private Function f1;
-    private Function f2;
+    private Function[] functions;
 
-    public Mult(Function f1, Function f2) {
-        this.f1 = f1;
-        this.f2 = f2;
+    // Произведение любого количества сомножителей; Mult(f1, f2) - частный случай
+    public Mult(Function... functions) {
+        if (functions.length == 0) {
+            throw new IllegalArgumentException("Требуется хотя бы один сомножитель");
+        }
+        this.functions = functions.clone();
     }
 
     @Override
     public double getLeftDomainBorder() {
-        return Math.max(f1.getLeftDomainBorder(), f2.getLeftDomainBorder());
+        // Пересечение областей определения
+        double left = functions[0].getLeftDomainBorder();
+        for (int i = 1; i < functions.length; i++) {
+            left = Math.max(left, functions[i].getLeftDomainBorder());
+        }
+        return left;
     }
 
     @Override
     public double getRightDomainBorder() {
-        return Math.min(f1.getRightDomainBorder(), f2.getRightDomainBorder());
+        // Пересечение областей определения
+        double right = functions[0].getRightDomainBorder();
+        for (int i = 1; i < functions.length; i++) {
+            right = Math.min(right, functions[i].getRightDomainBorder());
+        }
+        return right;
     }
 
     @Override
     public double getFunctionValue(double x) {
+        // Проверяем, что x в области определения всех функций
         if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
             return Double.NaN;
         }
-        return f1.getFunctionValue(x) * f2.getFunctionValue(x);
+        double result = functions[0].getFunctionValue(x);
+        for (int i = 1; i < functions.length; i++) {
+            result *= functions[i].getFunctionValue(x);
+        }
+        return result;
+    }
+
+    @Override
+    public void getFunctionValues(double[] xValues, int xOffset, double[] values, int offset, int length) {
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+
+        // Сомножители накапливаются во временном массиве: аргументы нужны до последнего сомножителя.
+        // Вычисление идёт порциями, временные массивы переиспользуются
+        int chunkSize = Math.min(length, BatchKernels.CHUNK_SIZE);
+        double[] result = new double[chunkSize];
+        double[] term = functions.length > 1 ? new double[chunkSize] : null;
+        for (int from = 0; from < length; from += chunkSize) {
+            int count = Math.min(chunkSize, length - from);
+            functions[0].getFunctionValues(xValues, xOffset + from, result, 0, count);
+            for (int k = 1; k < functions.length; k++) {
+                functions[k].getFunctionValues(xValues, xOffset + from, term, 0, count);
+                BatchKernels.multiply(result, term, count);
+            }
+            BatchKernels.copyInDomain(xValues, xOffset + from, result, values, offset + from, count, left, right);
+        }
+    }
+
+    public Function[] getFunctions() {
+        return functions.clone();
     }
 }
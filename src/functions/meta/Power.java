@@ -5,12 +5,25 @@ import functions.Function;
 public class Power implements Function {
     private Function f;
     private double power;
+    // Степень 2 или 3 вычисляется умножением значения на себя, а не через Math.pow
+    private boolean byMultiplication;
 
     public Power(Function f, double power) {
         this.f = f;
         this.power = power;
     }
 
+    // Квадрат или куб произведением: f вычисляется один раз, значение умножается на себя.
+    // Умножения быстрее Math.pow, но куб может отличаться от него в последнем разряде
+    public static Power byMultiplication(Function f, int power) {
+        if (power != 2 && power != 3) {
+            throw new IllegalArgumentException("Умножением вычисляются только степени 2 и 3");
+        }
+        Power result = new Power(f, power);
+        result.byMultiplication = true;
+        return result;
+    }
+
     @Override
     public double getLeftDomainBorder() {
         return f.getLeftDomainBorder();
@@ -23,10 +36,37 @@ public class Power implements Function {
 
     @Override
     public double getFunctionValue(double x) {
-        double value = f.getFunctionValue(x);
+        return applyPower(f.getFunctionValue(x));
+    }
+
+    // Возведение уже вычисленного значения внутренней функции в степень
+    double applyPower(double value) {
         if (Double.isNaN(value)) {
             return Double.NaN;
         }
+        if (byMultiplication) {
+            return power == 2 ? value * value : value * value * value;
+        }
         return Math.pow(value, power);
     }
+
+    @Override
+    public void getFunctionValues(double[] xValues, int xOffset, double[] values, int offset, int length) {
+        f.getFunctionValues(xValues, xOffset, values, offset, length);
+        for (int i = 0; i < length; i++) {
+            values[offset + i] = applyPower(values[offset + i]);
+        }
+    }
+
+    public Function getFunction() {
+        return f;
+    }
+
+    public double getPower() {
+        return power;
+    }
+
+    boolean isByMultiplication() {
+        return byMultiplication;
+    }
 }
@@ -47,4 +47,27 @@ public class Scale implements Function {
         }
         return value * scaleY;
     }
+
+    @Override
+    public void getFunctionValues(double[] xValues, int xOffset, double[] values, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            values[offset + i] = xValues[xOffset + i] * scaleX;
+        }
+        f.getFunctionValues(values, offset, values, offset, length);
+        for (int i = 0; i < length; i++) {
+            values[offset + i] *= scaleY;
+        }
+    }
+
+    public Function getFunction() {
+        return f;
+    }
+
+    public double getScaleX() {
+        return scaleX;
+    }
+
+    public double getScaleY() {
+        return scaleY;
+    }
 }
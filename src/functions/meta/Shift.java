@@ -32,4 +32,28 @@ public class Shift implements Function {
         }
         return value + shiftY;
     }
+
+    @Override
+    public void getFunctionValues(double[] xValues, int xOffset, double[] values, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            values[offset + i] = xValues[xOffset + i] + shiftX;
+        }
+        f.getFunctionValues(values, offset, values, offset, length);
+        // NaN при сложении остаётся NaN, отдельная проверка не нужна
+        for (int i = 0; i < length; i++) {
+            values[offset + i] += shiftY;
+        }
+    }
+
+    public Function getFunction() {
+        return f;
+    }
+
+    public double getShiftX() {
+        return shiftX;
+    }
+
+    public double getShiftY() {
+        return shiftY;
+    }
 }
@@ -3,32 +3,71 @@ package functions.meta;
 import functions.Function;
 
 public class Sum implements Function {
-    private Function f1;
-    private Function f2;
+    private Function[] functions;
 
-    public Sum(Function f1, Function f2) {
-        this.f1 = f1;
-        this.f2 = f2;
+    // Сумма любого количества слагаемых; Sum(f1, f2) - частный случай
+    public Sum(Function... functions) {
+        if (functions.length == 0) {
+            throw new IllegalArgumentException("Требуется хотя бы одно слагаемое");
+        }
+        this.functions = functions.clone();
     }
 
     @Override
     public double getLeftDomainBorder() {
         // Пересечение областей определения
-        return Math.max(f1.getLeftDomainBorder(), f2.getLeftDomainBorder());
+        double left = functions[0].getLeftDomainBorder();
+        for (int i = 1; i < functions.length; i++) {
+            left = Math.max(left, functions[i].getLeftDomainBorder());
+        }
+        return left;
     }
 
     @Override
     public double getRightDomainBorder() {
         // Пересечение областей определения
-        return Math.min(f1.getRightDomainBorder(), f2.getRightDomainBorder());
+        double right = functions[0].getRightDomainBorder();
+        for (int i = 1; i < functions.length; i++) {
+            right = Math.min(right, functions[i].getRightDomainBorder());
+        }
+        return right;
     }
 
     @Override
     public double getFunctionValue(double x) {
-        // Проверяем, что x в области определения обеих функций
+        // Проверяем, что x в области определения всех функций
         if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
             return Double.NaN;
         }
-        return f1.getFunctionValue(x) + f2.getFunctionValue(x);
+        double result = functions[0].getFunctionValue(x);
+        for (int i = 1; i < functions.length; i++) {
+            result += functions[i].getFunctionValue(x);
+        }
+        return result;
+    }
+
+    @Override
+    public void getFunctionValues(double[] xValues, int xOffset, double[] values, int offset, int length) {
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+
+        // Слагаемые накапливаются во временном массиве: аргументы нужны до последнего слагаемого.
+        // Вычисление идёт порциями, временные массивы переиспользуются
+        int chunkSize = Math.min(length, BatchKernels.CHUNK_SIZE);
+        double[] result = new double[chunkSize];
+        double[] term = functions.length > 1 ? new double[chunkSize] : null;
+        for (int from = 0; from < length; from += chunkSize) {
+            int count = Math.min(chunkSize, length - from);
+            functions[0].getFunctionValues(xValues, xOffset + from, result, 0, count);
+            for (int k = 1; k < functions.length; k++) {
+                functions[k].getFunctionValues(xValues, xOffset + from, term, 0, count);
+                BatchKernels.add(result, term, count);
+            }
+            BatchKernels.copyInDomain(xValues, xOffset + from, result, values, offset + from, count, left, right);
+        }
+    }
+
+    public Function[] getFunctions() {
+        return functions.clone();
     }
 }